@@ -0,0 +1,84 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingResponseDto;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.CommentDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Fixtures {
+    public static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    public static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+
+    public static Item item(long id, long ownerId) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Drill " + id);
+        item.setDescription("Cordless drill with two batteries and a case, item " + id);
+        item.setAvailable(true);
+        item.setUserId(ownerId);
+        return item;
+    }
+
+    public static Booking booking(long id, Item item, User booker) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(NOW.minusDays(id));
+        booking.setEnd(NOW.minusDays(id).plusHours(6));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(id % 3 == 0 ? Status.REJECTED : Status.APPROVED);
+        return booking;
+    }
+
+    public static List<Booking> bookings(int count) {
+        Item item = item(1L, 1L);
+        User booker = user(2L);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            bookings.add(booking(i, item, booker));
+        }
+        return bookings;
+    }
+
+    public static List<BookingResponseDto> bookingViews(int count) {
+        List<BookingResponseDto> bookings = new ArrayList<>(count);
+        for (Booking booking : bookings(count)) {
+            bookings.add(BookingMapper.toBookingResponseDto(booking));
+        }
+        return bookings;
+    }
+
+    public static ItemDto itemDto(int comments) {
+        List<CommentDto> list = new ArrayList<>(comments);
+        for (int i = 1; i <= comments; i++) {
+            list.add(CommentDto.builder()
+                    .id((long) i)
+                    .text("Works great, comment number " + i)
+                    .authorName("user2")
+                    .created(NOW.minusHours(i))
+                    .build());
+        }
+        ItemDto dto = ItemMapper.toItemDto(item(1L, 1L));
+        dto.setComments(list);
+        return dto;
+    }
+}
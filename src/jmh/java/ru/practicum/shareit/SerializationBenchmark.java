@@ -0,0 +1,100 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.BookingResponseDto;
+import ru.practicum.shareit.item.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON, CBOR and Smile encoding of typical and large responses with the same Jackson settings as
+ * the application. The payload size of each benchmark is reported next to its score as the
+ * {@code bytes} secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectWriter writer;
+    private ItemDto typicalItem;
+    private ItemDto largeItem;
+    private List<BookingResponseDto> typicalBookings;
+    private List<BookingResponseDto> largeBookings;
+
+    /**
+     * Holds the size of the last payload; an EVENTS counter is reported as is, not as a rate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long bytes;
+
+        byte[] measure(byte[] payload) {
+            bytes = payload.length;
+            return payload;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.FAIL_ON_EMPTY_BEANS, SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("cbor".equals(format)) {
+            builder.factory(new CBORFactory());
+        } else if ("smile".equals(format)) {
+            builder.factory(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build());
+        }
+        ObjectMapper mapper = builder.build();
+        writer = mapper.writer();
+        typicalItem = Fixtures.itemDto(3);
+        largeItem = Fixtures.itemDto(500);
+        typicalBookings = Fixtures.bookingViews(10);
+        largeBookings = Fixtures.bookingViews(1000);
+    }
+
+    @Benchmark
+    public byte[] itemDtoTypical(Payload payload) throws JsonProcessingException {
+        return payload.measure(writer.writeValueAsBytes(typicalItem));
+    }
+
+    @Benchmark
+    public byte[] itemDtoLarge(Payload payload) throws JsonProcessingException {
+        return payload.measure(writer.writeValueAsBytes(largeItem));
+    }
+
+    @Benchmark
+    public byte[] bookingsTypical(Payload payload) throws JsonProcessingException {
+        return payload.measure(writer.writeValueAsBytes(typicalBookings));
+    }
+
+    @Benchmark
+    public byte[] bookingsLarge(Payload payload) throws JsonProcessingException {
+        return payload.measure(writer.writeValueAsBytes(largeBookings));
+    }
+}
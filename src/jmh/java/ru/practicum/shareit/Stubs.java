@@ -0,0 +1,31 @@
+package ru.practicum.shareit;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.BiFunction;
+
+/**
+ * Dynamic-proxy stand-ins for Spring Data repositories, so benchmarks measure
+ * service code without a database or a mocking framework on the hot path.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, BiFunction<Method, Object[], Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + "Stub";
+                default:
+                    return answers.apply(method, args);
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.Stubs;
+import ru.practicum.shareit.exception.TheItemHasAlreadyBeenBooked;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejecting an overlapping booking from the in-memory intervals, with 8 threads either all on one
+ * item (one stripe) or spread over many. Each item holds one booking; the repositories are stubs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class BookingAdmissionBenchmark {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+
+    @Param({"1", "10000"})
+    private int items;
+
+    private BookingAdmission admission;
+
+    @Setup
+    public void setUp() {
+        BookingRepository bookings = Stubs.repository(BookingRepository.class, (method, args) -> {
+            switch (method.getName()) {
+                case "findByItemIdAndEndAfterAndStatusIn":
+                    return List.of();
+                case "existsByItemIdAndStatusInAndEndAfterAndStartBefore":
+                    return false;
+                default:
+                    return null;
+            }
+        });
+        admission = new BookingAdmission(Stubs.repository(ItemRepository.class, (method, args) -> null), bookings,
+                Duration.ofHours(1), Duration.ofHours(1));
+        for (long itemId = 1; itemId <= items; itemId++) {
+            Booking booking = booking(itemId);
+            admission.admit(booking, saved -> {
+                saved.setId(saved.getItem().getId());
+                return saved;
+            });
+        }
+    }
+
+    @Benchmark
+    public boolean rejectOverlap() {
+        try {
+            admission.admit(booking(1 + ThreadLocalRandom.current().nextInt(items)), booking -> booking);
+            return true;
+        } catch (TheItemHasAlreadyBeenBooked e) {
+            return false;
+        }
+    }
+
+    private static Booking booking(long itemId) {
+        Item item = new Item();
+        item.setId(itemId);
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setStart(START);
+        booking.setEnd(START.plusHours(2));
+        return booking;
+    }
+}
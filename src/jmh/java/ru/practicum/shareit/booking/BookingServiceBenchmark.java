@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.Stubs;
+import ru.practicum.shareit.cache.NearCache;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingServiceImpl list methods against repositories that return canned rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingServiceBenchmark {
+    @Param({"ALL", "PAST", "FUTURE", "CURRENT", "WAITING", "APPROVED", "REJECTED", "CANCELED"})
+    private Status state;
+
+    @Param({"10", "1000"})
+    private int rows;
+
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp() {
+        List<BookingResponseDto> bookings = Fixtures.bookingViews(rows);
+        User user = Fixtures.user(1L);
+        UserRepository userRepository = Stubs.repository(UserRepository.class,
+                (method, args) -> "findById".equals(method.getName()) ? Optional.of(user) : null);
+        ItemRepository itemRepository = Stubs.repository(ItemRepository.class, (method, args) -> null);
+        BookingRepository bookingRepository = Stubs.repository(BookingRepository.class,
+                (method, args) -> "findBookings".equals(method.getName()) ? bookings : null);
+        bookingService = new BookingServiceImpl(itemRepository, userRepository, bookingRepository,
+                new BookingAdmission(itemRepository, bookingRepository, Duration.ofMinutes(10), Duration.ofSeconds(30)),
+                new NearCache<>("users", 16, Duration.ofMinutes(1)),
+                new NearCache<>("items", 16, Duration.ofMinutes(1)),
+                new BookingListMetrics(new SimpleMeterRegistry()),
+                new ItemBookingTracker(Stubs.repository(ItemBookingSummaryRepository.class, (method, args) -> null),
+                        bookingRepository, itemRepository, Stubs.repository(PlatformTransactionManager.class, (method, args) -> null)),
+                new Outbox(Stubs.repository(OutboxRepository.class, (method, args) -> null), new ObjectMapper()));
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> byBooker() {
+        return bookingService.getAllBookingByUser(1L, state, BookingCursor.FIRST, rows);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> byOwner() {
+        return bookingService.getAllBookingItemsByOwner(1L, state, BookingCursor.FIRST, rows);
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.Stubs;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comment eligibility for one owner with many past bookings: the old scan of all the owner's
+ * past bookings against the indexed EXISTS, for a booker and for a stranger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentEligibilityBenchmark {
+    private static final long OWNER = 1L;
+    private static final int ITEMS = 100;
+    private static final long STRANGER = Long.MAX_VALUE;
+
+    @Param({"10000", "50000"})
+    private int bookingsPerOwner;
+
+    @Param({"booker", "stranger"})
+    private String candidate;
+
+    private Connection connection;
+    private PreparedStatement scan;
+    private PreparedStatement exists;
+    private CommentEligibility eligibility;
+    private LocalDateTime now;
+    private long userId;
+    private long itemId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:eligibility", "test", "test");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, user_id BIGINT)");
+            statement.execute("CREATE TABLE booking (id BIGINT PRIMARY KEY, start_time TIMESTAMP, end_time TIMESTAMP, " +
+                    "item_id BIGINT, user_id BIGINT, status varchar(100))");
+            statement.execute("CREATE INDEX booking_booker_item_end_idx ON booking (user_id, item_id, end_time)");
+            statement.execute("CREATE INDEX booking_item_start_idx ON booking (item_id, start_time DESC, id DESC)");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO items VALUES (?, ?)")) {
+            for (long id = 1; id <= ITEMS; id++) {
+                insert.setLong(1, id);
+                insert.setLong(2, OWNER);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        LocalDateTime start = LocalDateTime.now().minusYears(5);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO booking VALUES (?, ?, ?, ?, ?, 'APPROVED')")) {
+            for (long id = 1; id <= bookingsPerOwner; id++) {
+                insert.setLong(1, id);
+                insert.setTimestamp(2, Timestamp.valueOf(start.plusHours(id)));
+                insert.setTimestamp(3, Timestamp.valueOf(start.plusHours(id).plusMinutes(30)));
+                insert.setLong(4, 1 + id % ITEMS);
+                insert.setLong(5, 1000 + id);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        scan = connection.prepareStatement("select b.* from booking as b join items as i on b.item_id = i.id " +
+                "where i.user_id = ? and b.end_time < ? order by b.start_time desc, b.id desc");
+        exists = connection.prepareStatement("select 1 from booking as b " +
+                "where b.user_id = ? and b.item_id = ? and b.status = 'APPROVED' and b.end_time < ? limit 1");
+
+        BookingRepository bookings = Stubs.repository(BookingRepository.class,
+                (method, args) -> "existsByBookerIdAndItemIdAndStatusAndEndBefore".equals(method.getName())
+                        ? exists((Long) args[0], (Long) args[1], (LocalDateTime) args[3]) : null);
+        eligibility = new CommentEligibility(bookings);
+
+        now = LocalDateTime.now();
+        userId = "booker".equals(candidate) ? 1000 + bookingsPerOwner / 2 : STRANGER;
+        itemId = 1 + (bookingsPerOwner / 2) % ITEMS;
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public boolean ownerScan() throws SQLException {
+        scan.setLong(1, OWNER);
+        scan.setTimestamp(2, Timestamp.valueOf(now));
+        try (ResultSet rows = scan.executeQuery()) {
+            while (rows.next()) {
+                if (rows.getLong("user_id") == userId) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean indexedExists() {
+        return eligibility.isEligible(userId, itemId, now);
+    }
+
+    private boolean exists(long bookerId, long item, LocalDateTime time) {
+        try {
+            exists.setLong(1, bookerId);
+            exists.setLong(2, item);
+            exists.setTimestamp(3, Timestamp.valueOf(time));
+            try (ResultSet rows = exists.executeQuery()) {
+                return rows.next();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
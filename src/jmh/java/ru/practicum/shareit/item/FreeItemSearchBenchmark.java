@@ -0,0 +1,218 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.Stubs;
+import ru.practicum.shareit.booking.BookingCalendar;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * First ranked page of items free in a window, through the trigram index with the bookings of its
+ * top matches checked in batches, and through the NOT EXISTS anti-join, both on an embedded H2 catalog.
+ * Bookings span the past three years and the next three months, most of them already ended.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+public class FreeItemSearchBenchmark {
+    private static final String[] STATUSES = {"APPROVED", "APPROVED", "APPROVED", "APPROVED", "APPROVED",
+        "APPROVED", "APPROVED", "APPROVED", "WAITING", "REJECTED"};
+    private static final int PAGE = 20;
+    private static final int PAST_HOURS = 3 * 365 * 24;
+    private static final int FUTURE_HOURS = 90 * 24;
+
+    @Param({"1000000"})
+    private int catalogSize;
+
+    @Param({"10000000"})
+    private int bookingCount;
+
+    @Param({"drill", "projector mixer"})
+    private String query;
+
+    private LocalDateTime now;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private long[] itemIds;
+    private int[] startHours;
+    private byte[] durations;
+    private byte[] statuses;
+    private IndexedItemSearchEngine index;
+    private Connection connection;
+    private PreparedStatement free;
+
+    @Setup
+    public void setUp() throws SQLException {
+        now = LocalDateTime.now().withNano(0);
+        start = now.plusDays(5).withHour(9).withMinute(0).withSecond(0);
+        end = start.withHour(18);
+        List<Item> catalog = ItemSearchBenchmark.catalog(catalogSize);
+        bookings();
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:free", "test", "test");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, name varchar(100), " +
+                    "description varchar(300), available bool, user_id BIGINT)");
+            statement.execute("CREATE TABLE booking (id BIGINT PRIMARY KEY, start_time TIMESTAMP, " +
+                    "end_time TIMESTAMP, item_id BIGINT, user_id BIGINT, status varchar(20))");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO items VALUES (?, ?, ?, ?, ?)")) {
+            for (Item item : catalog) {
+                insert.setLong(1, item.getId());
+                insert.setString(2, item.getName());
+                insert.setString(3, item.getDescription());
+                insert.setBoolean(4, item.getAvailable());
+                insert.setLong(5, item.getUserId());
+                insert.addBatch();
+                if (item.getId() % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO booking VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < bookingCount; i++) {
+                insert.setLong(1, i + 1);
+                insert.setTimestamp(2, Timestamp.valueOf(startOf(i)));
+                insert.setTimestamp(3, Timestamp.valueOf(endOf(i)));
+                insert.setLong(4, itemIds[i]);
+                insert.setLong(5, 1 + i % 1000);
+                insert.setString(6, STATUSES[statuses[i]]);
+                insert.addBatch();
+                if ((i + 1) % 10_000 == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX booking_item_end_idx ON booking (item_id, end_time)");
+        }
+        free = connection.prepareStatement("select * from items as t " +
+                "where (LOWER(t.name) LIKE CONCAT('%', ?1, '%') or LOWER(t.description) LIKE CONCAT('%', ?1, '%'))" +
+                "and t.available = true " +
+                "and not exists (select 1 from booking as b where b.item_id = t.id " +
+                "and b.end_time > ?4 and b.start_time < ?5 and b.status in ('WAITING', 'APPROVED')) " +
+                "order by case when LOWER(t.name) LIKE CONCAT('%', ?1, '%') then 1 else 0 end desc, " +
+                "(LENGTH(COALESCE(t.name, '')) + LENGTH(COALESCE(t.description, '')) " +
+                "- LENGTH(REPLACE(LOWER(COALESCE(t.name, '')), ?1, '')) " +
+                "- LENGTH(REPLACE(LOWER(COALESCE(t.description, '')), ?1, ''))) / LENGTH(?1) desc, " +
+                "t.id desc " +
+                "limit ?3 offset ?2");
+        ItemRepository items = Stubs.repository(ItemRepository.class, (method, args) -> {
+            if ("findAll".equals(method.getName()) && args != null && args[0] instanceof Pageable) {
+                Pageable page = (Pageable) args[0];
+                int from = (int) Math.min(page.getOffset(), catalog.size());
+                int to = Math.min(from + page.getPageSize(), catalog.size());
+                return new PageImpl<>(catalog.subList(from, to), page, catalog.size());
+            }
+            return null;
+        });
+        BookingRepository bookings = Stubs.repository(BookingRepository.class, (method, args) ->
+                "findBusyItemIds".equals(method.getName())
+                        ? busyItemIds((Collection<?>) args[0], (LocalDateTime) args[2], (LocalDateTime) args[3])
+                        : null);
+        index = new IndexedItemSearchEngine(items, new BookingCalendar(bookings));
+        index.rebuild();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<ItemInfo> indexed() {
+        return index.searchFree(query, start, end, 0, PAGE);
+    }
+
+    @Benchmark
+    public int sql() throws SQLException {
+        free.setString(1, query);
+        free.setInt(2, 0);
+        free.setInt(3, PAGE);
+        free.setTimestamp(4, Timestamp.valueOf(start));
+        free.setTimestamp(5, Timestamp.valueOf(end));
+        int count = 0;
+        try (ResultSet rows = free.executeQuery()) {
+            while (rows.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void bookings() {
+        Random random = new Random(7);
+        itemIds = new long[bookingCount];
+        startHours = new int[bookingCount];
+        durations = new byte[bookingCount];
+        statuses = new byte[bookingCount];
+        for (int i = 0; i < bookingCount; i++) {
+            itemIds[i] = 1 + random.nextInt(catalogSize);
+            startHours[i] = random.nextInt(PAST_HOURS + FUTURE_HOURS) - PAST_HOURS;
+            durations[i] = (byte) (1 + random.nextInt(72));
+            statuses[i] = (byte) random.nextInt(STATUSES.length);
+        }
+    }
+
+    private List<Long> busyItemIds(Collection<?> itemIds, LocalDateTime from, LocalDateTime to) {
+        String ids = itemIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        List<Long> busy = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("select distinct item_id from booking " +
+                "where item_id in (" + ids + ") and status in ('WAITING', 'APPROVED') " +
+                "and end_time > ? and start_time < ?")) {
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    busy.add(rows.getLong(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return busy;
+    }
+
+    private LocalDateTime startOf(int i) {
+        return now.plusHours(startHours[i]);
+    }
+
+    private LocalDateTime endOf(int i) {
+        return now.plusHours(startHours[i] + durations[i]);
+    }
+}
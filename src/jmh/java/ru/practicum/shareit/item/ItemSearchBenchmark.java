@@ -0,0 +1,163 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.Stubs;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trigram index against the LIKE '%text%' query on an embedded H2 catalog, for the full match
+ * list and for the first ranked page of {@link #PAGE} items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+public class ItemSearchBenchmark {
+    static final String[] WORDS = {"drill", "saw", "ladder", "tent", "kayak", "bike", "hammer", "camera",
+        "tripod", "projector", "mixer", "grill", "cooler", "router", "sander", "scooter"};
+    private static final int PAGE = 20;
+
+    @Param({"1000000"})
+    private int catalogSize;
+
+    @Param({"drill", "projector mixer", "zz"})
+    private String query;
+
+    private IndexedItemSearchEngine index;
+    private Connection connection;
+    private PreparedStatement like;
+    private PreparedStatement ranked;
+
+    @Setup
+    public void setUp() throws SQLException {
+        List<Item> catalog = catalog(catalogSize);
+        ItemRepository repository = Stubs.repository(ItemRepository.class, (method, args) -> {
+            if ("findAll".equals(method.getName()) && args != null && args[0] instanceof Pageable) {
+                Pageable page = (Pageable) args[0];
+                int from = (int) Math.min(page.getOffset(), catalog.size());
+                int to = Math.min(from + page.getPageSize(), catalog.size());
+                return new PageImpl<>(catalog.subList(from, to), page, catalog.size());
+            }
+            return null;
+        });
+        index = new IndexedItemSearchEngine(repository, null);
+        index.rebuild();
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:search", "test", "test");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, name varchar(100), " +
+                    "description varchar(300), available bool, user_id BIGINT)");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO items VALUES (?, ?, ?, ?, ?)")) {
+            for (Item item : catalog) {
+                insert.setLong(1, item.getId());
+                insert.setString(2, item.getName());
+                insert.setString(3, item.getDescription());
+                insert.setBoolean(4, item.getAvailable());
+                insert.setLong(5, item.getUserId());
+                insert.addBatch();
+                if (item.getId() % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        like = connection.prepareStatement("select * from items as t " +
+                "where (LOWER(t.name) LIKE CONCAT('%', ?, '%') or LOWER(t.description) LIKE CONCAT('%', ?, '%'))" +
+                "and t.available = true");
+        ranked = connection.prepareStatement("select * from items as t " +
+                "where (LOWER(t.name) LIKE CONCAT('%', ?1, '%') or LOWER(t.description) LIKE CONCAT('%', ?1, '%'))" +
+                "and t.available = true " +
+                "order by case when LOWER(t.name) LIKE CONCAT('%', ?1, '%') then 1 else 0 end desc, " +
+                "(LENGTH(COALESCE(t.name, '')) + LENGTH(COALESCE(t.description, '')) " +
+                "- LENGTH(REPLACE(LOWER(COALESCE(t.name, '')), ?1, '')) " +
+                "- LENGTH(REPLACE(LOWER(COALESCE(t.description, '')), ?1, ''))) / LENGTH(?1) desc, " +
+                "t.id desc " +
+                "limit ?3 offset ?2");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<ItemInfo> indexed() {
+        return index.search(query);
+    }
+
+    @Benchmark
+    public int sql() throws SQLException {
+        like.setString(1, query);
+        like.setString(2, query);
+        int count = 0;
+        try (ResultSet rows = like.executeQuery()) {
+            while (rows.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public List<ItemInfo> indexedTopK() {
+        return index.search(query, 0, PAGE);
+    }
+
+    @Benchmark
+    public int sqlTopK() throws SQLException {
+        ranked.setString(1, query);
+        ranked.setInt(2, 0);
+        ranked.setInt(3, PAGE);
+        int count = 0;
+        try (ResultSet rows = ranked.executeQuery()) {
+            while (rows.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static List<Item> catalog(int catalogSize) {
+        Random random = new Random(42);
+        List<Item> catalog = new ArrayList<>(catalogSize);
+        for (long id = 1; id <= catalogSize; id++) {
+            Item item = new Item();
+            item.setId(id);
+            item.setName(WORDS[random.nextInt(WORDS.length)] + " " + id);
+            item.setDescription(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " in good condition, lot " + random.nextInt(100_000));
+            item.setAvailable(random.nextInt(10) != 0);
+            item.setUserId(1 + id % 1000);
+            catalog.add(item);
+        }
+        return catalog;
+    }
+}
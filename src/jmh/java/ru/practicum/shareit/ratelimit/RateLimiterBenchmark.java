@@ -0,0 +1,53 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.bulkhead.EndpointGroup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of taking and returning a permit with 8 threads, either all as one caller
+ * (every CAS contended) or spread over many callers. Limits are high enough never to refuse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+    @Param({"1", "10000"})
+    private int callers;
+
+    private RateLimiter rateLimiter;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(true);
+        properties.getDefaults().setPermitsPerSecond(1e12);
+        properties.getDefaults().setBurst(1_000_000);
+        properties.getDefaults().setMaxConcurrent(1_000);
+        rateLimiter = new RateLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void acquireAndRelease() {
+        long userId = callers == 1 ? 1L : ThreadLocalRandom.current().nextInt(callers);
+        rateLimiter.release(rateLimiter.acquire(EndpointGroup.BOOKING_LISTS, userId));
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of the "other users' requests" feed over a 1M-request table: keyset against
+ * OFFSET paging at the same depth, each followed by one batched query for the page's answers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ItemRequestFeedBenchmark {
+    private static final int USERS = 10_000;
+    private static final int PAGE = 20;
+    private static final long READER = 1L;
+
+    @Param({"1000000"})
+    private int requests;
+
+    @Param({"0", "500000"})
+    private int depth;
+
+    private Connection connection;
+    private PreparedStatement keyset;
+    private PreparedStatement offset;
+    private PreparedStatement answers;
+    private Timestamp cursorCreated;
+    private long cursorId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:requests", "test", "test");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE requests (id BIGINT PRIMARY KEY, description varchar(300), " +
+                    "user_id BIGINT, create_date timestamp)");
+            statement.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, name varchar(100), description varchar(300), " +
+                    "available bool, user_id BIGINT, request_id BIGINT)");
+        }
+        connection.setAutoCommit(false);
+        LocalDateTime start = LocalDateTime.now().minusYears(2);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO requests VALUES (?, ?, ?, ?)")) {
+            for (long id = 1; id <= requests; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "Need a tool #" + id);
+                insert.setLong(3, 1 + id % USERS);
+                insert.setTimestamp(4, Timestamp.valueOf(start.plusSeconds(id * 30)));
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO items VALUES (?, ?, ?, true, ?, ?)")) {
+            for (long id = 1; id <= requests / 5; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "Tool " + id);
+                insert.setString(3, "Answer to request " + id * 5);
+                insert.setLong(4, 1 + (id * 7) % USERS);
+                insert.setLong(5, id * 5);
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX requests_feed_idx ON requests (create_date DESC, id DESC)");
+            statement.execute("CREATE INDEX items_request_idx ON items (request_id)");
+        }
+        connection.commit();
+
+        keyset = connection.prepareStatement("select * from requests as r where r.user_id <> ? " +
+                "and (r.create_date < ? or (r.create_date = ? and r.id < ?)) " +
+                "order by r.create_date desc, r.id desc limit ?");
+        offset = connection.prepareStatement("select * from requests as r where r.user_id <> ? " +
+                "order by r.create_date desc, r.id desc limit ? offset ?");
+        answers = connection.prepareStatement("select * from items as i where i.request_id = any(?)");
+
+        cursorCreated = Timestamp.valueOf(LocalDateTime.of(9999, 12, 31, 23, 59, 59));
+        cursorId = Long.MAX_VALUE;
+        if (depth > 0) {
+            offset.setLong(1, READER);
+            offset.setInt(2, 1);
+            offset.setInt(3, depth - 1);
+            try (ResultSet rows = offset.executeQuery()) {
+                rows.next();
+                cursorCreated = rows.getTimestamp("create_date");
+                cursorId = rows.getLong("id");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int keysetPage() throws SQLException {
+        keyset.setLong(1, READER);
+        keyset.setTimestamp(2, cursorCreated);
+        keyset.setTimestamp(3, cursorCreated);
+        keyset.setLong(4, cursorId);
+        keyset.setInt(5, PAGE);
+        return withAnswers(keyset);
+    }
+
+    @Benchmark
+    public int offsetPage() throws SQLException {
+        offset.setLong(1, READER);
+        offset.setInt(2, PAGE);
+        offset.setInt(3, depth);
+        return withAnswers(offset);
+    }
+
+    private int withAnswers(PreparedStatement page) throws SQLException {
+        List<Long> ids = new ArrayList<>(PAGE);
+        try (ResultSet rows = page.executeQuery()) {
+            while (rows.next()) {
+                ids.add(rows.getLong("id"));
+            }
+        }
+        Array array = connection.createArrayOf("BIGINT", ids.toArray());
+        answers.setArray(1, array);
+        int count = ids.size();
+        try (ResultSet rows = answers.executeQuery()) {
+            while (rows.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Data;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk request: the rows that were stored, in request order, and an error
+ * for every row that was not. Row numbers are zero-based positions in the request body.
+ */
+@Data
+public class BatchResult<T> {
+    private final List<T> created = new ArrayList<>();
+    private final List<RowError> errors = new ArrayList<>();
+
+    public void accept(T row) {
+        created.add(row);
+    }
+
+    public void reject(int row, String error) {
+        errors.add(new RowError(row, error));
+    }
+
+    @Value
+    public static class RowError {
+        int row;
+        String error;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Value;
+
+@Value
+public class BatchRow<E> {
+    int index;
+    E entity;
+}
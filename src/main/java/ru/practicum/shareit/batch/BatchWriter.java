@@ -0,0 +1,120 @@
+package ru.practicum.shareit.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ValidationExceptionUser;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes bulk imports in chunks, one transaction per chunk. Inside a chunk the entities are
+ * persisted and flushed together, so with sequence ids and hibernate.jdbc.batch_size the
+ * inserts go out as JDBC batches. A chunk the database rejects is rolled back and retried
+ * one row per transaction, so only the offending rows are reported and the rest are kept.
+ */
+@Slf4j
+@Component
+public class BatchWriter {
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public BatchWriter(EntityManager entityManager, PlatformTransactionManager transactionManager, Validator validator,
+                       @Value("${shareit.batch.chunk-size:1000}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public void validate(Object entity) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(entity);
+        if (!violations.isEmpty()) {
+            throw new ValidationExceptionUser(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    /**
+     * Runs a set lookup (for example "which of these ids exist") in slices of the chunk size,
+     * keeping the IN list below the driver's bind parameter limit.
+     */
+    public <K, R> Set<R> lookup(Collection<K> keys, Function<Collection<K>, Collection<R>> query) {
+        Set<R> found = new HashSet<>();
+        List<K> list = new ArrayList<>(keys);
+        for (int from = 0; from < list.size(); from += chunkSize) {
+            found.addAll(query.apply(list.subList(from, Math.min(from + chunkSize, list.size()))));
+        }
+        return found;
+    }
+
+    public <E, D> void persist(List<BatchRow<E>> rows, Consumer<E> onPersisted, Function<E, D> toDto,
+                               BatchResult<D> result) {
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<BatchRow<E>> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            try {
+                write(chunk, onPersisted, false);
+                chunk.forEach(row -> result.accept(toDto.apply(row.getEntity())));
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                log.warn("batch rows {}..{} rejected, retrying one by one",
+                        chunk.get(0).getIndex(), chunk.get(chunk.size() - 1).getIndex(), e);
+                for (BatchRow<E> row : chunk) {
+                    persistOne(row, onPersisted, toDto, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retries a row of a rejected chunk in its own transaction. The id and version the chunk
+     * gave the entity were rolled back with it, so they are reset to unsaved values first.
+     */
+    private <E, D> void persistOne(BatchRow<E> row, Consumer<E> onPersisted, Function<E, D> toDto,
+                                   BatchResult<D> result) {
+        try {
+            write(List.of(row), onPersisted, true);
+            result.accept(toDto.apply(row.getEntity()));
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            log.warn("batch row {} rejected: {}", row.getIndex(), e.getMessage());
+            result.reject(row.getIndex(), "rejected by the database");
+        }
+    }
+
+    private <E> void write(List<BatchRow<E>> rows, Consumer<E> onPersisted, boolean retry) {
+        transactionTemplate.executeWithoutResult(status -> {
+            SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+            for (BatchRow<E> row : rows) {
+                if (retry) {
+                    EntityPersister persister = session.getEntityPersister(null, row.getEntity());
+                    persister.resetIdentifier(row.getEntity(), persister.getIdentifier(row.getEntity(), session),
+                            persister.getVersion(row.getEntity()), session);
+                }
+                entityManager.persist(row.getEntity());
+                onPersisted.accept(row.getEntity());
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
@@ -0,0 +1,212 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.TheItemHasAlreadyBeenBooked;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Rejects bookings that overlap a WAITING or APPROVED booking of the same item.
+ * Each item keeps its future intervals in a TreeMap keyed by start, guarded by one of STRIPES
+ * locks, so an overlap is rejected from memory and requests for different items run in parallel.
+ * The intervals only ever reject: a booking they let through is checked in the database with the
+ * item row locked (SELECT ... FOR UPDATE) until its transaction completes, so same-item admissions
+ * wait for each other on every instance and bookings written elsewhere are seen.
+ * Items are loaded from the database on first use, outside the lock, and reloaded when older than
+ * the max age, which bounds how long a booking rejected by another instance keeps blocking here.
+ * Items unused for the idle TTL are dropped.
+ */
+@Component
+public class BookingAdmission {
+    static final int STRIPES = 256;
+    static final List<Status> ACTIVE = List.of(Status.WAITING, Status.APPROVED);
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final Object[] locks = createLocks();
+    private final Map<Long, Slots> intervals = new ConcurrentHashMap<>();
+    private final Duration idleTtl;
+    private final Duration maxAge;
+
+    public BookingAdmission(ItemRepository itemRepository, BookingRepository bookingRepository,
+                            @Value("${shareit.bookings.admission.idle-ttl:10m}") Duration idleTtl,
+                            @Value("${shareit.bookings.admission.max-age:30s}") Duration maxAge) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.idleTtl = idleTtl;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Must run in the booking's transaction, which holds the item row lock until it completes.
+     */
+    public Booking admit(Booking booking, UnaryOperator<Booking> writer) {
+        Long itemId = booking.getItem().getId();
+        if (withSlots(itemId, slots -> overlaps(slots.byStart, booking.getStart(), booking.getEnd()))) {
+            throw new TheItemHasAlreadyBeenBooked("The item is already booked for these dates");
+        }
+        itemRepository.lockById(itemId);
+        if (bookingRepository.existsByItemIdAndStatusInAndEndAfterAndStartBefore(itemId, ACTIVE,
+                booking.getStart(), booking.getEnd())) {
+            intervals.remove(itemId);
+            throw new TheItemHasAlreadyBeenBooked("The item is already booked for these dates");
+        }
+        Booking saved = writer.apply(booking);
+        withSlots(itemId, slots -> {
+            slots.byStart.put(saved.getStart(), new Slot(saved.getId(), saved.getEnd()));
+            removeOnRollback(itemId, slots, saved.getId());
+            return saved;
+        });
+        return saved;
+    }
+
+    public void release(Long itemId, Long bookingId) {
+        synchronized (lockFor(itemId)) {
+            Slots slots = intervals.get(itemId);
+            if (slots != null) {
+                slots.remove(bookingId);
+            }
+        }
+    }
+
+    /**
+     * Drops items that were not used for the idle TTL.
+     */
+    @Scheduled(fixedDelayString = "${shareit.bookings.admission.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        intervals.forEach((itemId, slots) -> {
+            synchronized (lockFor(itemId)) {
+                if (now - slots.lastUsed >= idleTtl.toNanos()) {
+                    intervals.remove(itemId, slots);
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs the action under the item's lock. A missing item is read from the database before
+     * the lock is taken; if another thread installed the item meanwhile, its intervals win.
+     * The check under the lock retries when the item was evicted or found too old in between.
+     */
+    private <T> T withSlots(Long itemId, Function<Slots, T> action) {
+        while (true) {
+            Slots slots = intervals.get(itemId);
+            boolean loadedHere = false;
+            if (slots == null) {
+                Slots loadedSlots = new Slots(load(itemId, LocalDateTime.now()));
+                slots = intervals.putIfAbsent(itemId, loadedSlots);
+                if (slots == null) {
+                    slots = loadedSlots;
+                    loadedHere = true;
+                }
+            }
+            synchronized (lockFor(itemId)) {
+                if (intervals.get(itemId) == slots) {
+                    long now = System.nanoTime();
+                    if (!loadedHere && now - slots.loadedAt >= maxAge.toNanos()) {
+                        intervals.remove(itemId, slots);
+                        continue;
+                    }
+                    slots.lastUsed = now;
+                    prune(slots.byStart, LocalDateTime.now());
+                    return action.apply(slots);
+                }
+            }
+        }
+    }
+
+    private static void prune(NavigableMap<LocalDateTime, Slot> slots, LocalDateTime now) {
+        while (!slots.isEmpty() && slots.firstEntry().getValue().getEnd().isBefore(now)) {
+            slots.pollFirstEntry();
+        }
+    }
+
+    private NavigableMap<LocalDateTime, Slot> load(Long itemId, LocalDateTime now) {
+        NavigableMap<LocalDateTime, Slot> slots = new TreeMap<>();
+        for (Booking booking : bookingRepository.findByItemIdAndEndAfterAndStatusIn(itemId, now, ACTIVE)) {
+            slots.put(booking.getStart(), new Slot(booking.getId(), booking.getEnd()));
+        }
+        return slots;
+    }
+
+    private static boolean overlaps(NavigableMap<LocalDateTime, Slot> slots, LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Slot> before = slots.floorEntry(start);
+        if (before != null && before.getValue().getEnd().isAfter(start)) {
+            return true;
+        }
+        LocalDateTime after = slots.higherKey(start);
+        return after != null && after.isBefore(end);
+    }
+
+    private Object lockFor(Long itemId) {
+        int hash = itemId.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static Object[] createLocks() {
+        Object[] locks = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    /**
+     * A rollback frees the slot, otherwise it would reject requests until the item is reloaded.
+     */
+    private void removeOnRollback(Long itemId, Slots slots, Long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    synchronized (lockFor(itemId)) {
+                        slots.remove(bookingId);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Intervals of one item. All fields are guarded by the item's stripe lock.
+     */
+    static final class Slots {
+        final NavigableMap<LocalDateTime, Slot> byStart;
+        final long loadedAt = System.nanoTime();
+        long lastUsed = loadedAt;
+
+        Slots(NavigableMap<LocalDateTime, Slot> byStart) {
+            this.byStart = byStart;
+        }
+
+        void remove(Long bookingId) {
+            byStart.values().removeIf(slot -> slot.getBookingId().equals(bookingId));
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static final class Slot {
+        private final Long bookingId;
+        private final LocalDateTime end;
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Free windows of items over a period. The waiting and approved bookings that overlap the period
+ * are read for all items with one range query, ordered by item and start, and each item's
+ * windows come from a single pass that merges overlapping bookings.
+ * {@link #busyItems} answers only whether an item has such a booking, up to 1000 items per query.
+ */
+@Component
+public class BookingCalendar {
+    static final int BATCH = 1000;
+
+    private final BookingRepository bookingRepository;
+
+    public BookingCalendar(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    public Map<Long, List<TimeWindow>> freeWindows(Collection<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        Map<Long, List<TimeWindow>> windows = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return windows;
+        }
+        List<BookingInterval> intervals = bookingRepository.findIntervals(itemIds, BookingAdmission.ACTIVE, from, to);
+        int first = 0;
+        for (int i = 1; i <= intervals.size(); i++) {
+            if (i == intervals.size() || !intervals.get(i).getItemId().equals(intervals.get(first).getItemId())) {
+                windows.put(intervals.get(first).getItemId(), sweep(intervals.subList(first, i), from, to));
+                first = i;
+            }
+        }
+        for (Long itemId : itemIds) {
+            windows.computeIfAbsent(itemId, id -> List.of(new TimeWindow(from, to)));
+        }
+        return windows;
+    }
+
+    public Set<Long> busyItems(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        Set<Long> busy = new HashSet<>();
+        for (int i = 0; i < itemIds.size(); i += BATCH) {
+            busy.addAll(bookingRepository.findBusyItemIds(itemIds.subList(i, Math.min(i + BATCH, itemIds.size())),
+                    BookingAdmission.ACTIVE, from, to));
+        }
+        return busy;
+    }
+
+    /**
+     * Gaps between bookings sorted by start, clipped to [from, to).
+     */
+    static List<TimeWindow> sweep(List<? extends BookingInterval> bookings, LocalDateTime from, LocalDateTime to) {
+        List<TimeWindow> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingInterval booking : bookings) {
+            if (booking.getStartTime().isAfter(cursor)) {
+                free.add(new TimeWindow(cursor, booking.getStartTime().isBefore(to) ? booking.getStartTime() : to));
+            }
+            if (booking.getEndTime().isAfter(cursor)) {
+                cursor = booking.getEndTime();
+            }
+            if (!cursor.isBefore(to)) {
+                return free;
+            }
+        }
+        free.add(new TimeWindow(cursor, to));
+        return free;
+    }
+}
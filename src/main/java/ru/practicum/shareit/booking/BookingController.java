@@ -1,79 +1,151 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.bulkhead.Bulkheads;
+import ru.practicum.shareit.bulkhead.EndpointGroup;
+import ru.practicum.shareit.etag.ETags;
 import ru.practicum.shareit.exception.ExceptionEnum;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.exception.ValidationExceptionUser;
+import ru.practicum.shareit.ratelimit.RateLimited;
+import ru.practicum.shareit.stream.NdjsonWriter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * TODO Sprint add-bookings.
  */
 @RestController
 @RequestMapping(path = "/bookings")
+@RateLimited(EndpointGroup.BOOKINGS)
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     BookingService bookingService;
+    NdjsonWriter ndjsonWriter;
+    Bulkheads bulkheads;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, NdjsonWriter ndjsonWriter, Bulkheads bulkheads) {
         this.bookingService = bookingService;
+        this.ndjsonWriter = ndjsonWriter;
+        this.bulkheads = bulkheads;
     }
 
     @PostMapping
-    public Booking createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                 @Valid @RequestBody BookingDto booking) {
+    public CompletableFuture<BookingResponseDto> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @Valid @RequestBody BookingDto booking) {
         if (userId != null) {
-            return bookingService.createBooking(booking, userId);
+            return bulkheads.submit(EndpointGroup.BOOKINGS, () -> bookingService.createBooking(booking, userId));
         }
         throw new UserNotFoundException("User not found");
     }
 
     @GetMapping("/{bookingId}")
-    public Booking getBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId) {
+    public CompletableFuture<ResponseEntity<BookingResponseDto>> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId,
+                                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (userId != null) {
-            return bookingService.getBooking(bookingId, userId);
+            return bulkheads.submit(EndpointGroup.BOOKINGS, () -> {
+                String etag = bookingService.getBookingTag(bookingId, userId);
+                if (ETags.matches(ifNoneMatch, etag)) {
+                    return ETags.notModified(etag);
+                }
+                return ETags.ok(etag, bookingService.getBooking(bookingId, userId));
+            });
         }
         throw new UserNotFoundException("User not found");
     }
 
     @PatchMapping("/{bookingId}")
-    public Booking confirmTheBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @PathVariable Long bookingId, @RequestParam(name = "approved") boolean approved) {
+    public CompletableFuture<BookingResponseDto> confirmTheBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @PathVariable Long bookingId, @RequestParam(name = "approved") boolean approved) {
         if (userId != null) {
-            return bookingService.confirmTheBooking(userId, bookingId, approved);
+            return bulkheads.submit(EndpointGroup.BOOKINGS, () -> bookingService.confirmTheBooking(userId, bookingId, approved));
         } else {
             throw new UserNotFoundException("User not found");
         }
     }
 
     @GetMapping
-    public List<Booking> getAllBookingByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestParam(name = "state", defaultValue = "ALL") String state) {
+    @RateLimited(EndpointGroup.BOOKING_LISTS)
+    public CompletableFuture<ResponseEntity<List<BookingResponseDto>>> getAllBookingByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                             @RequestParam(name = "cursor", required = false) String cursor,
+                                                             @RequestParam(name = "size", required = false) Integer size) {
         if (userId != null) {
-            try {
-                Status stateNew = Status.valueOf(state.toUpperCase());
-                return bookingService.getAllBookingByUser(userId, stateNew);
-            } catch (RuntimeException e) {
-                throw new ExceptionEnum("Unknown state: " + state);
-            }
+            BookingCursor position = BookingCursor.decode(cursor);
+            int limit = pageSize(size);
+            Status stateNew = parseState(state);
+            return bulkheads.submit(EndpointGroup.BOOKING_LISTS,
+                    () -> toPage(bookingService.getAllBookingByUser(userId, stateNew, position, limit), limit));
         }
         throw new UserNotFoundException("User not found");
     }
 
     @GetMapping("/owner")
-    public List<Booking> getAllBookingItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @RequestParam(name = "state", defaultValue = "ALL") String state) {
+    @RateLimited(EndpointGroup.BOOKING_LISTS)
+    public CompletableFuture<ResponseEntity<List<BookingResponseDto>>> getAllBookingItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                                   @RequestParam(name = "cursor", required = false) String cursor,
+                                                                   @RequestParam(name = "size", required = false) Integer size) {
         if (userId != null) {
-            try {
-                Status stateNew = Status.valueOf(state.toUpperCase());
-                return bookingService.getAllBookingItemsByOwner(userId, stateNew);
-            } catch (RuntimeException e) {
-                throw new ExceptionEnum("Unknown state: " + state);
-            }
+            BookingCursor position = BookingCursor.decode(cursor);
+            int limit = pageSize(size);
+            Status stateNew = parseState(state);
+            return bulkheads.submit(EndpointGroup.BOOKING_LISTS,
+                    () -> toPage(bookingService.getAllBookingItemsByOwner(userId, stateNew, position, limit), limit));
         }
         throw new UserNotFoundException("User not found");
     }
+
+    @GetMapping(produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    @RateLimited(EndpointGroup.BOOKING_LISTS)
+    public void streamAllBookingByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                       @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                       HttpServletResponse response) {
+        ndjsonWriter.<BookingResponseDto>stream(response,
+                sink -> bookingService.streamAllBookingByUser(userId, parseState(state), sink));
+    }
+
+    @GetMapping(path = "/owner", produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    @RateLimited(EndpointGroup.BOOKING_LISTS)
+    public void streamAllBookingItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                             @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                             HttpServletResponse response) {
+        ndjsonWriter.<BookingResponseDto>stream(response,
+                sink -> bookingService.streamAllBookingItemsByOwner(userId, parseState(state), sink));
+    }
+
+    private Status parseState(String state) {
+        try {
+            return Status.valueOf(state.toUpperCase());
+        } catch (RuntimeException e) {
+            throw new ExceptionEnum("Unknown state: " + state);
+        }
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return Integer.MAX_VALUE;
+        }
+        if (size <= 0) {
+            throw new ValidationExceptionUser("size must be positive");
+        }
+        return size;
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toPage(List<BookingResponseDto> bookings, int size) {
+        if (bookings.size() == size) {
+            return ResponseEntity.ok()
+                    .header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode())
+                    .body(bookings);
+        }
+        return ResponseEntity.ok(bookings);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox payload for a created or confirmed booking.
+ */
+@Value
+public class BookingEvent {
+    public static final String AGGREGATE = "booking";
+    public static final String CREATED = "BookingCreated";
+    public static final String APPROVED = "BookingApproved";
+    public static final String REJECTED = "BookingRejected";
+
+    Long bookingId;
+    Long itemId;
+    Long ownerId;
+    Long bookerId;
+    Status status;
+    LocalDateTime start;
+    LocalDateTime end;
+    /**
+     * The booking's version after this change; orders the events of one booking.
+     */
+    Long version;
+}
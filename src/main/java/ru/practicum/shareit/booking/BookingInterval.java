@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+public interface BookingInterval {
+    Long getItemId();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latency of booking list queries per role and requested state.
+ * Timers are created once, so a successful call costs one clock read pair and a histogram update.
+ */
+@Component
+public class BookingListMetrics {
+    static final String NAME = "booking.list";
+    static final String BOOKER = "booker";
+    static final String OWNER = "owner";
+
+    private final MeterRegistry registry;
+    private final Map<Status, Timer> bookerTimers = new EnumMap<>(Status.class);
+    private final Map<Status, Timer> ownerTimers = new EnumMap<>(Status.class);
+
+    public BookingListMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Status state : Status.values()) {
+            bookerTimers.put(state, timer(BOOKER, state, "none"));
+            ownerTimers.put(state, timer(OWNER, state, "none"));
+        }
+    }
+
+    public List<BookingResponseDto> byBooker(Status state, Supplier<List<BookingResponseDto>> query) {
+        return record(BOOKER, state, bookerTimers.get(state), query);
+    }
+
+    public List<BookingResponseDto> byOwner(Status state, Supplier<List<BookingResponseDto>> query) {
+        return record(OWNER, state, ownerTimers.get(state), query);
+    }
+
+    private List<BookingResponseDto> record(String role, Status state, Timer timer, Supplier<List<BookingResponseDto>> query) {
+        long start = System.nanoTime();
+        try {
+            List<BookingResponseDto> bookings = query.get();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return bookings;
+        } catch (RuntimeException e) {
+            timer(role, state, e.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(String role, Status state, String exception) {
+        return Timer.builder(NAME)
+                .description("Booking list query latency by role and state")
+                .tag("role", role)
+                .tag("state", state.name())
+                .tag("exception", exception)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+}
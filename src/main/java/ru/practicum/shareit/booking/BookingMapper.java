@@ -22,4 +22,15 @@ public class BookingMapper {
                 .bookerId(booking.getBooker().getId())
                 .build();
     }
+
+    public static BookingResponseDto toBookingResponseDto(Booking booking) {
+        return new BookingResponseDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getBooker().getId());
+    }
+
+    public static BookingEvent toBookingEvent(Booking booking) {
+        return new BookingEvent(booking.getId(), booking.getItem().getId(), booking.getItem().getUserId(),
+                booking.getBooker().getId(), booking.getStatus(), booking.getStart(), booking.getEnd(),
+                booking.getVersion());
+    }
 }
@@ -1,117 +1,64 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
-import ru.practicum.shareit.item.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long>, QuerydslPredicateExecutor<Item> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, QuerydslPredicateExecutor<Booking>,
+        BookingRepositoryCustom {
 
-    @Query(value = "select * " +
-            "from booking as b " +
-            "where b.user_id = ?1 " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findByBookerId(Long userId);
-
-    @Query(value = "select * " +
-            "from booking as b " +
-            "where b.item_id = ?1 and b.start_time < ?2 and b.status != ?3 " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findByItemIdPast(Long itemId, LocalDateTime time, Status status);
-
-    @Query(value = "select * " +
-            "from booking as b " +
-            "where b.item_id = ?1 and b.end_time > ?2 and NOT(b.status LIKE ?3) and b.start_time > ?2 " +
-            "ORDER BY b.start_time ASC",
-            nativeQuery = true)
-    List<Booking> findByItemIdFuture(Long itemId, LocalDateTime time, Status status);
-
-    @Query(value = "select * " +
-            "from booking as b " +
-            "where b.user_id = ?1 and b.end_time < ?2 " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findBookingPast(Long userId, LocalDateTime time);
-
-    @Query(value = "select * " +
-            "from booking as b " +
-            "where b.user_id = ?1 and ?2 between b.start_time and b.end_time " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findBookingCurrent(Long userId, LocalDateTime time);
-
-    @Query(value = "select * " +
-            "from booking as b " +
-            "where b.user_id = ?1 and b.end_time > ?2 " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findBookingFuture(Long userId, LocalDateTime time);
-
-    @Query(value = "select * " +
-            "from booking as b " +
-            "where b.user_id = ?1 and b.status = ?2 " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findBookingWaiting(Long userId, String waiting);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.id = ?1")
+    Optional<Booking> findWithItemAndBookerById(Long bookingId);
 
-    @Query(value = "select * " +
-            "from booking as b " +
-            "where b.user_id = ?1 and b.status = ?2 " +
-            "ORDER BY b.start_time DESC",
+    @Query(value = "select b.user_id as bookerId, i.user_id as ownerId, b.version as bookingVersion, " +
+            "i.version as itemVersion " +
+            "from booking as b join items as i on i.id = b.item_id " +
+            "where b.id = ?1",
             nativeQuery = true)
-    List<Booking> findBookingRejected(Long userId, String rejected);
-
-    @Query(value = "select * " +
-            "from booking as b " +
-            "join items as t ON b.item_id = t.id " +
-            "where t.user_id = ?1 " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findBookingItemsByOwner(Long userId);
-
-    @Query(value = "select * " +
-            "from booking as b " +
-            "join items as t ON b.item_id = t.id " +
-            "where t.user_id = ?1 and b.end_time < ?2 " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findBookingPastItemsByOwner(Long userId, LocalDateTime time);
-
-    @Query(value = "select * " +
-            "from booking as b " +
-            "join items as t ON b.item_id = t.id " +
-            "where t.user_id = ?1 and ?2 between b.start_time and b.end_time " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findBookingCurrentItemsByOwner(Long userId, LocalDateTime time);
-
-    @Query(value = "select * " +
-            "from booking as b " +
-            "join items as t ON b.item_id = t.id " +
-            "where t.user_id = ?1 and b.end_time > ?2 " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findBookingFutureItemsByOwner(Long userId, LocalDateTime time);
-
-    @Query(value = "select * " +
-            "from booking as b " +
-            "join items as t ON b.item_id = t.id " +
-            "where t.user_id = ?1 and b.status = ?2 " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findBookingWaitingItemsByOwner(Long userId, String status);
-
-    @Query(value = "select b.* " +
-            "from booking as b " +
-            "join items as t ON b.item_id = t.id " +
-            "where t.user_id = ?1 and b.status = ?2 " +
-            "ORDER BY b.start_time DESC",
-            nativeQuery = true)
-    List<Booking> findBookingRejectedItemsByOwner(Long userId, String status);
-
-}
\ No newline at end of file
+    Optional<BookingVersion> findVersionById(Long bookingId);
+
+    /**
+     * Moves a booking to the given status if it is not there yet and the user owns its item.
+     * Only a booking that still holds its slot (waiting or approved) moves: a rejected one has
+     * given the slot back, possibly to an overlapping booking, so approving it later is refused.
+     * Returns the number of updated rows, so 0 means the transition was refused.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?3, b.version = b.version + 1 " +
+            "where b.id = ?1 and b.status <> ?3 " +
+            "and b.status in (ru.practicum.shareit.booking.Status.WAITING, ru.practicum.shareit.booking.Status.APPROVED) " +
+            "and b.item.id in (select i.id from Item i where i.userId = ?2)")
+    int updateStatusByOwner(Long bookingId, Long ownerId, Status status);
+
+    List<Booking> findByItemIdAndEndAfterAndStatusIn(Long itemId, LocalDateTime time, Collection<Status> statuses);
+
+    boolean existsByItemIdAndStatusInAndEndAfterAndStartBefore(Long itemId, Collection<Status> statuses,
+                                                               LocalDateTime start, LocalDateTime end);
+
+    Optional<Booking> findFirstByItemIdAndStartBeforeAndStatusNotOrderByStartDescIdDesc(Long itemId,
+                                                                                     LocalDateTime time,
+                                                                                     Status status);
+
+    Optional<Booking> findFirstByItemIdAndStartAfterAndStatusNotOrderByStartAscIdAsc(Long itemId, LocalDateTime time,
+                                                                                  Status status);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId, Status status,
+                                                           LocalDateTime time);
+
+    @Query("select b.item.id as itemId, b.start as startTime, b.end as endTime from Booking b " +
+            "where b.item.id in ?1 and b.status in ?2 and b.end > ?3 and b.start < ?4 " +
+            "order by b.item.id, b.start, b.id")
+    List<BookingInterval> findIntervals(Collection<Long> itemIds, Collection<Status> statuses, LocalDateTime from,
+                                        LocalDateTime to);
+
+    @Query("select distinct b.item.id from Booking b " +
+            "where b.item.id in ?1 and b.status in ?2 and b.end > ?3 and b.start < ?4")
+    List<Long> findBusyItemIds(Collection<Long> itemIds, Collection<Status> statuses, LocalDateTime from,
+                               LocalDateTime to);
+}
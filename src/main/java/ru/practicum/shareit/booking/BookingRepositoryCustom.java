@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingRepositoryCustom {
+
+    List<BookingResponseDto> findBookings(BookingRole role, Long userId, Status state, LocalDateTime now,
+                                          BookingCursor cursor, int size);
+
+    Stream<BookingResponseDto> streamBookings(BookingRole role, Long userId, Status state, LocalDateTime now);
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.jpa.QueryHints;
+import ru.practicum.shareit.exception.ExceptionEnum;
+import ru.practicum.shareit.item.QItem;
+import ru.practicum.shareit.stream.NdjsonWriter;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Builds one query per (role, state) pair and maps rows straight into {@link BookingResponseDto},
+ * so no Booking, Item or User entities are hydrated for list endpoints.
+ */
+class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final QBooking BOOKING = QBooking.booking;
+    private static final QItem ITEM = QItem.item;
+
+    private final JPAQueryFactory queryFactory;
+
+    BookingRepositoryCustomImpl(EntityManager entityManager) {
+        this.queryFactory = new JPAQueryFactory(entityManager);
+    }
+
+    @Override
+    public List<BookingResponseDto> findBookings(BookingRole role, Long userId, Status state, LocalDateTime now,
+                                                 BookingCursor cursor, int size) {
+        return query(role, userId, state, now, cursor)
+                .limit(size)
+                .fetch();
+    }
+
+    @Override
+    public Stream<BookingResponseDto> streamBookings(BookingRole role, Long userId, Status state, LocalDateTime now) {
+        CloseableIterator<BookingResponseDto> rows = query(role, userId, state, now, BookingCursor.FIRST)
+                .setHint(QueryHints.HINT_FETCH_SIZE, NdjsonWriter.FETCH_SIZE)
+                .iterate();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+                .onClose(rows::close);
+    }
+
+    private JPAQuery<BookingResponseDto> query(BookingRole role, Long userId, Status state, LocalDateTime now,
+                                               BookingCursor cursor) {
+        return queryFactory
+                .select(Projections.constructor(BookingResponseDto.class,
+                        BOOKING.id, BOOKING.start, BOOKING.end, BOOKING.status,
+                        ITEM.id, ITEM.name, BOOKING.booker.id))
+                .from(BOOKING)
+                .join(BOOKING.item, ITEM)
+                .where(byRole(role, userId), byState(state, now), after(cursor))
+                .orderBy(BOOKING.start.desc(), BOOKING.id.desc());
+    }
+
+    private static BooleanExpression byRole(BookingRole role, Long userId) {
+        return role == BookingRole.OWNER ? ITEM.userId.eq(userId) : BOOKING.booker.id.eq(userId);
+    }
+
+    private static BooleanExpression byState(Status state, LocalDateTime now) {
+        switch (state) {
+            case ALL:
+                return null;
+            case PAST:
+                return BOOKING.end.lt(now);
+            case FUTURE:
+                return BOOKING.end.gt(now);
+            case CURRENT:
+                return BOOKING.start.loe(now).and(BOOKING.end.goe(now));
+            case WAITING:
+            case APPROVED:
+            case REJECTED:
+            case CANCELED:
+                return BOOKING.status.eq(state);
+            default:
+                throw new ExceptionEnum("Unknown state: " + state);
+        }
+    }
+
+    private static BooleanExpression after(BookingCursor cursor) {
+        if (BookingCursor.FIRST.equals(cursor)) {
+            return null;
+        }
+        return BOOKING.start.lt(cursor.getStart())
+                .or(BOOKING.start.eq(cursor.getStart()).and(BOOKING.id.lt(cursor.getId())));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingResponseDto {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Status status;
+    private ItemShort item;
+    private BookerShort booker;
+
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                              Long itemId, String itemName, Long bookerId) {
+        this(id, start, end, status, new ItemShort(itemId, itemName), new BookerShort(bookerId));
+    }
+
+    @Value
+    public static class ItemShort {
+        Long id;
+        String name;
+    }
+
+    @Value
+    public static class BookerShort {
+        Long id;
+    }
+}
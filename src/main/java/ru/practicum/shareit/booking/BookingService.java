@@ -3,20 +3,29 @@ package ru.practicum.shareit.booking;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
     @Transactional
-    Booking createBooking(BookingDto bookingDto, Long userId);
+    BookingResponseDto createBooking(BookingDto bookingDto, Long userId);
 
     @Transactional
-    Booking getBooking(Long bookingId, Long userId);
+    BookingResponseDto getBooking(Long bookingId, Long userId);
 
-    public Booking confirmTheBooking(Long idUser, Long idBooking, boolean confirm);
+    String getBookingTag(Long bookingId, Long userId);
+
+    public BookingResponseDto confirmTheBooking(Long idUser, Long idBooking, boolean confirm);
 
     @Transactional
-    List<Booking> getAllBookingByUser(Long userId, Status state);
+    List<BookingResponseDto> getAllBookingByUser(Long userId, Status state, BookingCursor cursor, int size);
+
+    List<BookingResponseDto> getAllBookingItemsByOwner(Long userId, Status state, BookingCursor cursor, int size);
+
+    @Transactional(readOnly = true)
+    void streamAllBookingByUser(Long userId, Status state, Consumer<BookingResponseDto> sink);
 
-    List<Booking> getAllBookingItemsByOwner(Long userId, Status state);
+    @Transactional(readOnly = true)
+    void streamAllBookingItemsByOwner(Long userId, Status state, Consumer<BookingResponseDto> sink);
 
 }
\ No newline at end of file
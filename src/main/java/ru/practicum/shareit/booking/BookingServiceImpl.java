@@ -5,17 +5,23 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.NearCache;
+import ru.practicum.shareit.etag.ETags;
 import ru.practicum.shareit.exception.*;
-import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.item.ItemSnapshot;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserSnapshot;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.booking.Status.REJECTED;
-import static ru.practicum.shareit.booking.Status.WAITING;
 
 @Service
 @Slf4j
@@ -25,17 +31,24 @@ public class BookingServiceImpl implements BookingService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final BookingAdmission bookingAdmission;
+    private final NearCache<Long, UserSnapshot> userCache;
+    private final NearCache<Long, ItemSnapshot> itemCache;
+    private final BookingListMetrics bookingListMetrics;
+    private final ItemBookingTracker itemBookingTracker;
+    private final Outbox outbox;
 
     @Transactional
     @Override
-    public Booking createBooking(BookingDto bookingDto, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-        Item item = itemRepository.findById(bookingDto.getItemId())
-                .orElseThrow(() -> new ItemNotFoundException("Item not found"));
+    public BookingResponseDto createBooking(BookingDto bookingDto, Long userId) {
+        UserSnapshot user = findUser(userId);
+        ItemSnapshot item = findItem(bookingDto.getItemId());
         if (item.getAvailable() && bookingDto.getStart().isBefore(bookingDto.getEnd())) {
             if (!user.getId().equals(item.getUserId())) {
-                return bookingRepository.save(BookingMapper.toBooking(bookingDto, user, item));
+                Booking booking = bookingAdmission.admit(BookingMapper.toBooking(bookingDto,
+                        userRepository.getReferenceById(user.getId()), itemRepository.getReferenceById(item.getId())),
+                        this::saveBooking);
+                return BookingMapper.toBookingResponseDto(booking);
             }
             throw new AccessRightsError("you do not have the necessary access rights");
         }
@@ -43,94 +56,103 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Booking getBooking(Long bookingId, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-        Booking booking = bookingRepository.findById(bookingId)
+    public BookingResponseDto getBooking(Long bookingId, Long userId) {
+        findUser(userId);
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
-        Item item = itemRepository.findById(booking.getItem().getId())
-                .orElseThrow(() -> new ItemNotFoundException("Item not found"));
-        if (booking.getBooker().getId().equals(userId) || item.getUserId().equals(userId)) {
-            return booking;
+        if (booking.getBooker().getId().equals(userId) || booking.getItem().getUserId().equals(userId)) {
+            return BookingMapper.toBookingResponseDto(booking);
         }
         throw new AccessRightsError("you do not have the necessary access rights");
     }
 
+    /**
+     * Only the booker and the item owner get a tag; anyone else falls through to the access check.
+     */
     @Override
-    public Booking confirmTheBooking(Long userId, Long bookingId, boolean confirm) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-        Booking booking = bookingRepository.findById(bookingId)
+    public String getBookingTag(Long bookingId, Long userId) {
+        return bookingRepository.findVersionById(bookingId)
+                .filter(version -> version.getBookerId().equals(userId) || version.getOwnerId().equals(userId))
+                .map(version -> ETags.of("b", bookingId, version.getBookingVersion(), version.getItemVersion()))
+                .orElse(null);
+    }
+
+    @Transactional
+    @Override
+    public BookingResponseDto confirmTheBooking(Long userId, Long bookingId, boolean confirm) {
+        Status status = confirm ? Status.APPROVED : REJECTED;
+        if (bookingRepository.updateStatusByOwner(bookingId, userId, status) == 0) {
+            throw refusedTransition(userId, bookingId);
+        }
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
-        Item item = itemRepository.findById(booking.getItem().getId())
-                .orElseThrow(() -> new ItemNotFoundException("Item not found"));
-        if (user.getId().equals(item.getUserId())) {
-            if (confirm) {
-                if (!booking.getStatus().equals(Status.APPROVED)) {
-                    booking.setStatus(Status.APPROVED);
-                } else {
-                    throw new TheItemHasAlreadyBeenBooked("The status has already been confirmed");
-                }
-            } else {
-                if (!booking.getStatus().equals(REJECTED)) {
-                    booking.setStatus(REJECTED);
-                } else {
-                    throw new TheItemHasAlreadyBeenBooked("The status has already been confirmed");
-                }
-            }
-            return bookingRepository.save(booking);
+        if (!confirm) {
+            bookingAdmission.release(booking.getItem().getId(), booking.getId());
         }
-        throw new AccessRightsError("you do not have the necessary access rights");
+        itemBookingTracker.onChanged(booking);
+        outbox.append(BookingEvent.AGGREGATE, booking.getId(), confirm ? BookingEvent.APPROVED : BookingEvent.REJECTED,
+                BookingMapper.toBookingEvent(booking));
+        return BookingMapper.toBookingResponseDto(booking);
+    }
+
+    private Booking saveBooking(Booking booking) {
+        Booking saved = bookingRepository.save(booking);
+        itemBookingTracker.onChanged(saved);
+        outbox.append(BookingEvent.AGGREGATE, saved.getId(), BookingEvent.CREATED, BookingMapper.toBookingEvent(saved));
+        return saved;
+    }
+
+    private RuntimeException refusedTransition(Long userId, Long bookingId) {
+        UserSnapshot user = findUser(userId);
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
+        if (!user.getId().equals(booking.getItem().getUserId())) {
+            return new AccessRightsError("you do not have the necessary access rights");
+        }
+        return new TheItemHasAlreadyBeenBooked("The status has already been confirmed");
     }
 
     @Override
-    public List<Booking> getAllBookingByUser(Long userId, Status state) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-        LocalDateTime date = LocalDateTime.now();
-        log.info("Время: {}", date);
-        switch (state) {
-            case ALL:
-                return bookingRepository.findByBookerId(userId);
-            case PAST:
-                return bookingRepository.findBookingPast(userId, date);
-            case FUTURE:
-                return bookingRepository.findBookingFuture(userId, date);
-            case CURRENT:
-                List<Booking> bookings = bookingRepository.findBookingCurrent(userId, date);
-                return bookings;
-            case WAITING:
-                return bookingRepository.findBookingWaiting(userId, WAITING.name());
-            case REJECTED:
-                return bookingRepository.findBookingRejected(userId, REJECTED.name());
-            default:
-                throw new RuntimeException("the request was not found");
+    public List<BookingResponseDto> getAllBookingByUser(Long userId, Status state, BookingCursor cursor, int size) {
+        findUser(userId);
+        return bookingListMetrics.byBooker(state, () -> bookingRepository.findBookings(BookingRole.BOOKER, userId,
+                state, LocalDateTime.now(), cursor, size));
+    }
+
+    @Override
+    public List<BookingResponseDto> getAllBookingItemsByOwner(Long userId, Status state, BookingCursor cursor, int size) {
+        findUser(userId);
+        return bookingListMetrics.byOwner(state, () -> bookingRepository.findBookings(BookingRole.OWNER, userId,
+                state, LocalDateTime.now(), cursor, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllBookingByUser(Long userId, Status state, Consumer<BookingResponseDto> sink) {
+        findUser(userId);
+        try (Stream<BookingResponseDto> bookings = bookingRepository.streamBookings(BookingRole.BOOKER, userId,
+                state, LocalDateTime.now())) {
+            bookings.forEach(sink);
         }
     }
 
     @Override
-    public List<Booking> getAllBookingItemsByOwner(Long userId, Status state) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-        LocalDateTime date = LocalDateTime.now();
-        log.info("Время: {}", date);
-        switch (state) {
-            case ALL:
-                return bookingRepository.findBookingItemsByOwner(userId);
-            case PAST:
-                return bookingRepository.findBookingPastItemsByOwner(userId, date);
-            case FUTURE:
-                return bookingRepository.findBookingFutureItemsByOwner(userId, date);
-            case CURRENT:
-                return bookingRepository.findBookingCurrentItemsByOwner(userId, date);
-            case WAITING:
-                return bookingRepository.findBookingWaitingItemsByOwner(userId, WAITING.name());
-            case REJECTED:
-                return bookingRepository.findBookingRejectedItemsByOwner(userId, REJECTED.name());
-            default:
-                throw new RuntimeException("the request was not found");
+    @Transactional(readOnly = true)
+    public void streamAllBookingItemsByOwner(Long userId, Status state, Consumer<BookingResponseDto> sink) {
+        findUser(userId);
+        try (Stream<BookingResponseDto> bookings = bookingRepository.streamBookings(BookingRole.OWNER, userId,
+                state, LocalDateTime.now())) {
+            bookings.forEach(sink);
         }
     }
 
+    private UserSnapshot findUser(Long userId) {
+        return userCache.get(userId, id -> userRepository.findById(id).map(UserMapper::toUserSnapshot))
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    }
 
+    private ItemSnapshot findItem(Long itemId) {
+        return itemCache.get(itemId, id -> itemRepository.findById(id).map(ItemMapper::toItemSnapshot))
+                .orElseThrow(() -> new ItemNotFoundException("Item not found"));
+    }
 }
\ No newline at end of file
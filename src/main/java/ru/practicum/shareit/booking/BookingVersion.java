@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking;
+
+public interface BookingVersion {
+    Long getBookerId();
+
+    Long getOwnerId();
+
+    Long getBookingVersion();
+
+    Long getItemVersion();
+}
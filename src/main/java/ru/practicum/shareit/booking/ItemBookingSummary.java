@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+import java.time.LocalDateTime;
+
+/**
+ * Last and next non-rejected booking of an item, kept up to date by {@link ItemBookingTracker}
+ * so that owner views do not have to scan the item's bookings.
+ */
+@Data
+@Entity
+@Table(schema = "public", name = "item_booking_summary")
+@NoArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id", nullable = false, updatable = false)
+    private Long itemId;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public BookingByBooker getLastBooking() {
+        return lastBookingId == null ? null : BookingByBooker.builder().id(lastBookingId).bookerId(lastBookerId).build();
+    }
+
+    public BookingByBooker getNextBooking() {
+        return nextBookingId == null ? null : BookingByBooker.builder().id(nextBookingId).bookerId(nextBookerId).build();
+    }
+
+    boolean isStale(LocalDateTime now) {
+        return nextStart != null && !nextStart.isAfter(now);
+    }
+
+    void setLast(Booking booking) {
+        lastBookingId = booking == null ? null : booking.getId();
+        lastBookerId = booking == null ? null : booking.getBooker().getId();
+        lastStart = booking == null ? null : booking.getStart();
+    }
+
+    void setNext(Booking booking) {
+        nextBookingId = booking == null ? null : booking.getId();
+        nextBookerId = booking == null ? null : booking.getBooker().getId();
+        nextStart = booking == null ? null : booking.getStart();
+    }
+}
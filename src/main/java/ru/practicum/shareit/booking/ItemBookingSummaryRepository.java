@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    /**
+     * Creates an empty summary row unless the item already has one. Callers hold the item row lock,
+     * so two transactions do not both pass the NOT EXISTS for the same item.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO item_booking_summary (item_id) " +
+            "SELECT ?1 WHERE NOT EXISTS (SELECT 1 FROM item_booking_summary WHERE item_id = ?1)",
+            nativeQuery = true)
+    void insertIfAbsent(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemBookingSummary s where s.itemId = ?1")
+    Optional<ItemBookingSummary> findForUpdate(Long itemId);
+
+    @Query("select s.itemId from ItemBookingSummary s where s.nextStart <= ?1")
+    List<Long> findItemIdsWithNextStartedBy(LocalDateTime time);
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintains {@link ItemBookingSummary} rows. Booking writes adjust the pointers of their item
+ * in place; a full recount of one item (two LIMIT 1 index lookups) is only needed when a
+ * pointed-to booking is rejected or the next booking has started. The latter is done by
+ * {@link #rollForward()} on a timer, and on read for any summary the timer has not reached yet.
+ */
+@Slf4j
+@Component
+public class ItemBookingTracker {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ItemBookingTracker(ItemBookingSummaryRepository summaryRepository, BookingRepository bookingRepository,
+                              ItemRepository itemRepository, PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Applies a created or re-statused booking to its item's summary. Must run in the writing transaction.
+     */
+    public void onChanged(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = lock(booking.getItem().getId());
+        if (booking.getStatus() == Status.REJECTED) {
+            if (booking.getId().equals(summary.getLastBookingId()) || booking.getId().equals(summary.getNextBookingId())) {
+                recount(summary, now);
+            }
+        } else if (booking.getStart().isBefore(now)) {
+            if (summary.getLastStart() == null || compare(booking, summary.getLastStart(), summary.getLastBookingId()) > 0) {
+                summary.setLast(booking);
+            }
+        } else if (booking.getStart().isAfter(now)) {
+            if (summary.getNextStart() == null || compare(booking, summary.getNextStart(), summary.getNextBookingId()) < 0) {
+                summary.setNext(booking);
+            }
+        }
+    }
+
+    public Optional<ItemBookingSummary> summary(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        return summaryRepository.findById(itemId)
+                .map(summary -> summary.isStale(now) ? rollForward(itemId) : summary);
+    }
+
+    public Map<Long, ItemBookingSummary> summaries(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        for (ItemBookingSummary summary : summaryRepository.findAllById(itemIds)) {
+            summaries.put(summary.getItemId(), summary.isStale(now) ? rollForward(summary.getItemId()) : summary);
+        }
+        return summaries;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.roll-forward-interval-ms:60000}")
+    public void rollForward() {
+        List<Long> itemIds = summaryRepository.findItemIdsWithNextStartedBy(LocalDateTime.now());
+        itemIds.forEach(this::rollForward);
+        if (!itemIds.isEmpty()) {
+            log.debug("rolled forward booking summaries of {} items", itemIds.size());
+        }
+    }
+
+    private ItemBookingSummary rollForward(Long itemId) {
+        return transactionTemplate.execute(status -> {
+            ItemBookingSummary summary = lock(itemId);
+            recount(summary, LocalDateTime.now());
+            return summary;
+        });
+    }
+
+    /**
+     * Locks the item's summary row, creating it first if needed. A row created here is recounted,
+     * since the item may have bookings written before it had a summary. The item row is locked
+     * before the insert, as booking admission does, so two transactions never both insert the row.
+     */
+    private ItemBookingSummary lock(Long itemId) {
+        Optional<ItemBookingSummary> existing = summaryRepository.findForUpdate(itemId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        itemRepository.lockById(itemId);
+        summaryRepository.insertIfAbsent(itemId);
+        ItemBookingSummary summary = summaryRepository.findForUpdate(itemId).orElseThrow();
+        recount(summary, LocalDateTime.now());
+        return summary;
+    }
+
+    /**
+     * Orders bookings by (start, id), as {@link #recount} does, so equal start times
+     * resolve to the same booking on both paths.
+     */
+    private static int compare(Booking booking, LocalDateTime start, Long id) {
+        int byStart = booking.getStart().compareTo(start);
+        return byStart != 0 ? byStart : booking.getId().compareTo(id);
+    }
+
+    private void recount(ItemBookingSummary summary, LocalDateTime now) {
+        summary.setLast(bookingRepository.findFirstByItemIdAndStartBeforeAndStatusNotOrderByStartDescIdDesc(
+                summary.getItemId(), now, Status.REJECTED).orElse(null));
+        summary.setNext(bookingRepository.findFirstByItemIdAndStartAfterAndStatusNotOrderByStartAscIdAsc(
+                summary.getItemId(), now, Status.REJECTED).orElse(null));
+    }
+}
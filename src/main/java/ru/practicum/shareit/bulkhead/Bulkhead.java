@@ -0,0 +1,68 @@
+package ru.practicum.shareit.bulkhead;
+
+import org.springframework.core.task.TaskDecorator;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for one endpoint group. Admission is limited to
+ * maxConcurrent + maxQueued in-flight calls; anything above that fails fast.
+ */
+class Bulkhead {
+    private final EndpointGroup group;
+    private final ExecutorService executor;
+    private final Semaphore admission;
+    private final Semaphore concurrency;
+    private final TaskDecorator taskDecorator;
+
+    Bulkhead(EndpointGroup group, ExecutorService executor, int maxConcurrent, int maxQueued, boolean limitConcurrency,
+             TaskDecorator taskDecorator) {
+        this.group = group;
+        this.executor = executor;
+        this.taskDecorator = taskDecorator;
+        this.admission = new Semaphore(maxConcurrent + maxQueued);
+        this.concurrency = limitConcurrency ? new Semaphore(maxConcurrent) : null;
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<T> action) {
+        if (!admission.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new ServiceOverloadedException("Too many concurrent requests: " + group));
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(taskDecorator.decorate(() -> run(action, result)));
+        } catch (RuntimeException e) {
+            admission.release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private <T> void run(Supplier<T> action, CompletableFuture<T> result) {
+        try {
+            if (concurrency != null) {
+                concurrency.acquireUninterruptibly();
+            }
+            try {
+                result.complete(action.get());
+            } finally {
+                if (concurrency != null) {
+                    concurrency.release();
+                }
+            }
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            admission.release();
+        }
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
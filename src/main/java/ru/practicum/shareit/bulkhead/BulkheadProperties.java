@@ -0,0 +1,38 @@
+package ru.practicum.shareit.bulkhead;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.async")
+public class BulkheadProperties {
+    /**
+     * Run controller methods on per-group executors instead of the servlet container thread.
+     */
+    private boolean enabled = false;
+    /**
+     * Use virtual threads when the runtime supports them.
+     */
+    private boolean virtualThreads = true;
+    private Limits defaults = new Limits();
+    private Map<EndpointGroup, Limits> groups = new EnumMap<>(EndpointGroup.class);
+
+    public Limits limitsFor(EndpointGroup group) {
+        return groups.getOrDefault(group, defaults);
+    }
+
+    @Data
+    public static class Limits {
+        /**
+         * Requests of the group that may run at the same time.
+         */
+        private int maxConcurrent = 10;
+        /**
+         * Requests that may wait for a free slot before new ones are rejected with 503.
+         */
+        private int maxQueued = 100;
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.bulkhead;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs controller work on a separate bounded executor per {@link EndpointGroup}, so a burst
+ * of slow queries in one group cannot take the threads needed by another.
+ * When disabled, work runs inline on the calling thread. A {@link TaskDecorator} bean, if present,
+ * wraps each task to carry thread-bound context over from the request thread.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class Bulkheads implements DisposableBean {
+    private final boolean enabled;
+    private final Map<EndpointGroup, Bulkhead> bulkheads = new EnumMap<>(EndpointGroup.class);
+
+    public Bulkheads(BulkheadProperties properties) {
+        this(properties, task -> task);
+    }
+
+    @Autowired
+    public Bulkheads(BulkheadProperties properties, ObjectProvider<TaskDecorator> taskDecorator) {
+        this(properties, taskDecorator.getIfAvailable(() -> task -> task));
+    }
+
+    private Bulkheads(BulkheadProperties properties, TaskDecorator taskDecorator) {
+        this.enabled = properties.isEnabled();
+        if (!enabled) {
+            return;
+        }
+        boolean virtual = properties.isVirtualThreads() && supportsVirtualThreads();
+        for (EndpointGroup group : EndpointGroup.values()) {
+            BulkheadProperties.Limits limits = properties.limitsFor(group);
+            ExecutorService executor = virtual
+                    ? virtualThreadExecutor()
+                    : Executors.newFixedThreadPool(limits.getMaxConcurrent(), threadFactory(group));
+            bulkheads.put(group, new Bulkhead(group, executor, limits.getMaxConcurrent(), limits.getMaxQueued(), virtual,
+                    taskDecorator));
+        }
+        log.info("bulkheads enabled on {} threads", virtual ? "virtual" : "platform");
+    }
+
+    public <T> CompletableFuture<T> submit(EndpointGroup group, Supplier<T> action) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(action.get());
+        }
+        return bulkheads.get(group).submit(action);
+    }
+
+    public CompletableFuture<Void> run(EndpointGroup group, Runnable action) {
+        return submit(group, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        bulkheads.values().forEach(Bulkhead::shutdown);
+    }
+
+    private static boolean supportsVirtualThreads() {
+        ExecutorService probe = virtualThreadExecutor();
+        if (probe == null) {
+            return false;
+        }
+        probe.shutdown();
+        return true;
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory threadFactory(EndpointGroup group) {
+        AtomicInteger counter = new AtomicInteger();
+        String prefix = "bulkhead-" + group.name().toLowerCase() + "-";
+        return task -> {
+            Thread thread = new Thread(task, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.bulkhead;
+
+public enum EndpointGroup {
+    USERS,
+    ITEMS,
+    BOOKINGS,
+    BOOKING_LISTS,
+    REQUESTS,
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.ItemSnapshot;
+import ru.practicum.shareit.user.UserSnapshot;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+    private final Duration holdAfterWrite;
+
+    /**
+     * With replica routing, a key written less than the read-your-writes window ago is not cached:
+     * the load may have been served by a replica that has not caught up with the write yet.
+     */
+    public CacheConfig(@Value("${shareit.datasource.routing.enabled:false}") boolean routing,
+                       @Value("${shareit.datasource.routing.read-your-writes-window:5s}") Duration window) {
+        this.holdAfterWrite = routing ? window : Duration.ZERO;
+    }
+
+    @Bean
+    public NearCache<Long, UserSnapshot> userCache(@Value("${shareit.cache.users.max-size:10000}") int maxSize,
+                                           @Value("${shareit.cache.users.ttl:60s}") Duration ttl,
+                                           MeterRegistry meterRegistry) {
+        return withMetrics(new NearCache<>("users", maxSize, ttl, holdAfterWrite), meterRegistry);
+    }
+
+    @Bean
+    public NearCache<Long, ItemSnapshot> itemCache(@Value("${shareit.cache.items.max-size:50000}") int maxSize,
+                                           @Value("${shareit.cache.items.ttl:60s}") Duration ttl,
+                                           MeterRegistry meterRegistry) {
+        return withMetrics(new NearCache<>("items", maxSize, ttl, holdAfterWrite), meterRegistry);
+    }
+
+    private static <K, V> NearCache<K, V> withMetrics(NearCache<K, V> cache, MeterRegistry meterRegistry) {
+        new NearCacheMetrics(cache).bindTo(meterRegistry);
+        return cache;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping(path = "/caches")
+public class CacheController {
+
+    List<NearCache<?, ?>> caches;
+
+    @Autowired
+    public CacheController(List<NearCache<?, ?>> caches) {
+        this.caches = caches;
+    }
+
+    @GetMapping
+    public List<NearCache.Stats> getStats() {
+        return caches.stream().map(NearCache::stats).collect(Collectors.toList());
+    }
+}
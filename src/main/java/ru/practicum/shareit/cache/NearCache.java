@@ -0,0 +1,211 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Value;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded read-through cache with a per-entry time to live, on a ConcurrentHashMap so that
+ * hits on different keys never wait for each other.
+ * A miss puts a per-key loading marker in the map and the loaded value replaces only that marker,
+ * so an invalidation of the key (which removes the marker) keeps the load from being stored,
+ * while loads of other keys are unaffected. Absent values are not cached.
+ * With a hold time (reads served by lagging replicas), a committed invalidation leaves a marker
+ * instead: loads of the key are not stored until it expires, since they may still see the old row.
+ * Each entry remembers when it was last read. Once the map grows past the maximum size, the least
+ * recently read entries are dropped, a sixteenth of the maximum at a time so the sort is amortized.
+ * Values are shared between threads, so they should be immutable snapshots, not entities.
+ */
+public class NearCache<K, V> {
+    private final String name;
+    private final int maxSize;
+    private final int evictBelow;
+    private final long ttlNanos;
+    private final long holdNanos;
+    private final LongSupplier ticker;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public NearCache(String name, int maxSize, Duration ttl) {
+        this(name, maxSize, ttl, Duration.ZERO);
+    }
+
+    public NearCache(String name, int maxSize, Duration ttl, Duration holdAfterWrite) {
+        this(name, maxSize, ttl, holdAfterWrite, System::nanoTime);
+    }
+
+    NearCache(String name, int maxSize, Duration ttl, Duration holdAfterWrite, LongSupplier ticker) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.evictBelow = maxSize - maxSize / 16;
+        this.ttlNanos = ttl.toNanos();
+        this.holdNanos = holdAfterWrite.toNanos();
+        this.ticker = ticker;
+    }
+
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        long now = ticker.getAsLong();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.value != null) {
+            if (entry.expiresAt - now > 0) {
+                entry.lastRead = now;
+                hits.increment();
+                return Optional.of(entry.value);
+            }
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        } else if (entry != null && entry.isHeld() && entry.expiresAt - now <= 0) {
+            entries.remove(key, entry);
+        }
+        misses.increment();
+        Entry<V> loading = Entry.loading(now);
+        boolean marked = entries.putIfAbsent(key, loading) == null;
+        try {
+            Optional<V> value = loader.apply(key);
+            if (marked && value.isPresent()) {
+                long loadedAt = ticker.getAsLong();
+                if (entries.replace(key, loading, Entry.cached(value.get(), loadedAt + ttlNanos, loadedAt))) {
+                    puts.increment();
+                    evictIfFull();
+                }
+            }
+            return value;
+        } finally {
+            if (marked) {
+                entries.remove(key, loading);
+            }
+        }
+    }
+
+    /**
+     * Inside a transaction the key is dropped again after the commit: a load that ran before the
+     * commit still saw the old row and would otherwise be cached until the entry expires.
+     */
+    public void invalidate(K key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            hold(key);
+            return;
+        }
+        entries.remove(key);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hold(key);
+            }
+        });
+    }
+
+    private void hold(K key) {
+        if (holdNanos <= 0) {
+            entries.remove(key);
+            return;
+        }
+        long now = ticker.getAsLong();
+        entries.put(key, Entry.held(now + holdNanos, now));
+    }
+
+    /**
+     * Only one thread sorts at a time; the others go on and may briefly leave the map over size.
+     * Expired hold markers are swept on the way; live ones and loading markers are kept.
+     */
+    private void evictIfFull() {
+        if (entries.size() <= maxSize || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = ticker.getAsLong();
+            List<Map.Entry<K, Entry<V>>> loaded = new ArrayList<>(entries.size());
+            for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+                Entry<V> value = entry.getValue();
+                if (value.value != null) {
+                    loaded.add(Map.entry(entry.getKey(), value));
+                } else if (value.isHeld() && value.expiresAt - now <= 0) {
+                    entries.remove(entry.getKey(), value);
+                }
+            }
+            loaded.sort(Comparator.comparingLong(entry -> entry.getValue().lastRead));
+            int excess = loaded.size() - evictBelow;
+            for (int i = 0; i < loaded.size() && excess > 0; i++) {
+                if (entries.remove(loaded.get(i).getKey(), loaded.get(i).getValue())) {
+                    evictions.increment();
+                    excess--;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(name, size(), maxSize, hits.sum(), misses.sum(), puts.sum(), evictions.sum());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * A cached value, or without one a marker: a load in progress, or a hold until expiresAt.
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        private final boolean loading;
+        private volatile long lastRead;
+
+        private Entry(V value, long expiresAt, boolean loading, long lastRead) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.loading = loading;
+            this.lastRead = lastRead;
+        }
+
+        private static <V> Entry<V> cached(V value, long expiresAt, long now) {
+            return new Entry<>(value, expiresAt, false, now);
+        }
+
+        private static <V> Entry<V> loading(long now) {
+            return new Entry<>(null, 0, true, now);
+        }
+
+        private static <V> Entry<V> held(long until, long now) {
+            return new Entry<>(null, until, false, now);
+        }
+
+        private boolean isHeld() {
+            return value == null && !loading;
+        }
+    }
+
+    @Value
+    public static class Stats {
+        String name;
+        int size;
+        int maxSize;
+        long hits;
+        long misses;
+        long puts;
+        long evictions;
+    }
+}
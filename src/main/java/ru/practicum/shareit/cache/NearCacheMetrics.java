@@ -0,0 +1,50 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publishes a near-cache as the standard cache.gets, cache.puts, cache.evictions and cache.size
+ * meters, tagged with the cache name, as Micrometer does for Caffeine or JCache.
+ */
+class NearCacheMetrics extends CacheMeterBinder<NearCache<?, ?>> {
+
+    NearCacheMetrics(NearCache<?, ?> cache) {
+        super(cache, cache.getName(), Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        NearCache<?, ?> cache = getCache();
+        return cache == null ? null : (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        NearCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.stats().getHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        NearCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.stats().getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        NearCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.stats().getEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        NearCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.stats().getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+    }
+}
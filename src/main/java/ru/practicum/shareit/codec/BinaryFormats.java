@@ -0,0 +1,58 @@
+package ru.practicum.shareit.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.booking.BookingResponseDto;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.user.UserDto;
+
+import java.util.List;
+
+/**
+ * CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) responses for
+ * clients that ask for them in Accept. The mappers share the application's Jackson settings, are
+ * built once, and have the list DTO serializers resolved up front. JSON stays first, so
+ * {@code Accept: *}{@code /*} still gets JSON.
+ */
+@Configuration
+public class BinaryFormats implements WebMvcConfigurer {
+    private static final List<Class<?>> WARM_UP = List.of(UserDto.class, ItemDto.class, BookingResponseDto.class);
+
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+
+    public BinaryFormats(Jackson2ObjectMapperBuilder builder) {
+        this.cborMapper = warmUp(builder.factory(new CBORFactory()).build());
+        SmileFactory smile = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        this.smileMapper = warmUp(builder.factory(smile).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        int json = 0;
+        while (json < converters.size() && !(converters.get(json) instanceof MappingJackson2HttpMessageConverter)) {
+            json++;
+        }
+        int position = Math.min(json + 1, converters.size());
+        converters.add(position, new MappingJackson2SmileHttpMessageConverter(smileMapper));
+        converters.add(position, new MappingJackson2CborHttpMessageConverter(cborMapper));
+    }
+
+    private static ObjectMapper warmUp(ObjectMapper mapper) {
+        WARM_UP.forEach(type -> mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, type)));
+        return mapper;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.datasource;
+
+/**
+ * Id from the X-Sharer-User-Id header of the request being served, if any.
+ */
+public final class CurrentUser {
+    private static final ThreadLocal<Long> USER = new ThreadLocal<>();
+
+    private CurrentUser() {
+    }
+
+    public static Long get() {
+        return USER.get();
+    }
+
+    public static void set(Long userId) {
+        if (userId == null) {
+            USER.remove();
+        } else {
+            USER.set(userId);
+        }
+    }
+
+    public static void clear() {
+        USER.remove();
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+class CurrentUserInterceptor implements AsyncHandlerInterceptor {
+    static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String header = request.getHeader(USER_HEADER);
+        try {
+            CurrentUser.set(header == null ? null : Long.valueOf(header.trim()));
+        } catch (NumberFormatException e) {
+            CurrentUser.clear();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        CurrentUser.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        CurrentUser.clear();
+    }
+}
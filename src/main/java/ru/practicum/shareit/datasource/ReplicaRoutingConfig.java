@@ -0,0 +1,86 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single datasource with a primary and replica pools. The primary is the usual
+ * spring.datasource.*; replicas come from shareit.datasource.routing.replicas[n].*.
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingProperties.class)
+@ConditionalOnProperty(prefix = "shareit.datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+
+    @Bean
+    WriteTracker writeTracker(RoutingProperties routing) {
+        return new WriteTracker(routing.getReadYourWritesWindow());
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                     RoutingProperties routing, WriteTracker writeTracker) {
+        DataSource primary = dataSourceProperties.initializeDataSourceBuilder().build();
+        List<DataSource> replicas = new ArrayList<>();
+        for (RoutingProperties.Replica replica : routing.getReplicas()) {
+            DataSource dataSource = DataSourceBuilder.create()
+                    .driverClassName(replica.getDriverClassName() != null
+                            ? replica.getDriverClassName() : dataSourceProperties.determineDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            if (routing.isInitSchema()) {
+                DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")),
+                        dataSource);
+            }
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, writeTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Carries the current user onto bulkhead threads, so routing sees who is reading.
+     */
+    @Bean
+    public TaskDecorator currentUserTaskDecorator() {
+        return task -> {
+            Long userId = CurrentUser.get();
+            return () -> {
+                CurrentUser.set(userId);
+                try {
+                    task.run();
+                } finally {
+                    CurrentUser.clear();
+                }
+            };
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CurrentUserInterceptor());
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.datasource.routing")
+public class RoutingProperties {
+    /**
+     * Route read-only transactions to the replicas below.
+     */
+    private boolean enabled = false;
+    /**
+     * How long a user's reads stay on the primary after they wrote.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    /**
+     * Run schema.sql on each replica at startup; for local setups without real replication.
+     */
+    private boolean initSchema = false;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
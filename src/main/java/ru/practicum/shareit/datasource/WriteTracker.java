@@ -0,0 +1,42 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote to the primary recently. Their read-only transactions stay on the
+ * primary for the configured window, so they see their own writes despite replica lag.
+ * A write is one map put; users whose window has passed are swept on a schedule.
+ */
+class WriteTracker {
+    private final long windowNanos;
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    WriteTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    void recordWrite(Long userId) {
+        if (userId == null || windowNanos <= 0) {
+            return;
+        }
+        lastWrites.put(userId, System.nanoTime());
+    }
+
+    boolean recentlyWrote(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long time = lastWrites.get(userId);
+        return time != null && System.nanoTime() - time <= windowNanos;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.routing.prune-interval-ms:60000}")
+    public void prune() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(time -> now - time > windowNanos);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.StringJoiner;
+
+/**
+ * Strong entity tags built from version counters, and the If-None-Match check that lets a
+ * GET answer 304 before the response body is assembled.
+ */
+public final class ETags {
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    public static String of(Object... parts) {
+        StringJoiner tag = new StringJoiner("-", "\"", "\"");
+        for (Object part : parts) {
+            tag.add(String.valueOf(part == null ? 0 : part));
+        }
+        return tag.toString();
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, so W/"x" matches "x" (RFC 7232, 3.2).
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith(WEAK_PREFIX)) {
+                value = value.substring(WEAK_PREFIX.length());
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    public static <T> ResponseEntity<T> ok(String etag, T body) {
+        return etag == null ? ResponseEntity.ok(body) : ResponseEntity.ok().eTag(etag).body(body);
+    }
+}
@@ -1,11 +1,12 @@
 package ru.practicum.shareit.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-
+import javax.servlet.http.HttpServletResponse;
 import java.util.Map;
 
 @RestControllerAdvice
@@ -18,13 +19,28 @@ public class ErrorHandler {
     }
 
     @ExceptionHandler({UserNotFoundException.class, ItemNotFoundException.class,
-            BookingNotFoundException.class, AccessRightsError.class})
+            BookingNotFoundException.class, AccessRightsError.class, ItemRequestNotFoundException.class})
     @ResponseStatus(HttpStatus.NOT_FOUND) //404
     public Map<String, String> objectNotFound(final RuntimeException e) {
         return Map.of("error", "объект не найден",
                 "errorMessage", e.getMessage());
     }
 
+    @ExceptionHandler({TooManyRequestsException.class})
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS) //429
+    public Map<String, String> tooManyRequests(final TooManyRequestsException e, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        return Map.of("error", "слишком много запросов",
+                "errorMessage", e.getMessage());
+    }
+
+    @ExceptionHandler({ServiceOverloadedException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE) //503
+    public Map<String, String> overloaded(final RuntimeException e) {
+        return Map.of("error", "сервис перегружен",
+                "errorMessage", e.getMessage());
+    }
+
     @ExceptionHandler({ExceptionEnum.class})
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR) //500
     public Map<String, String> getException(final RuntimeException e) {
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class ItemRequestNotFoundException extends RuntimeException {
+    public ItemRequestNotFoundException(final String message) {
+        super(message);
+    }
+}
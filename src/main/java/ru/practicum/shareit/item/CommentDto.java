@@ -1,8 +1,15 @@
 package ru.practicum.shareit.item;
 
+import lombok.Builder;
+import lombok.Data;
 
+import java.time.LocalDateTime;
+
+@Data
+@Builder
 public class CommentDto {
     private Long id;
     private String text;
     private String authorName;
-}
\ No newline at end of file
+    private LocalDateTime created;
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Answers "has the user finished an approved booking of the item" with an indexed EXISTS on
+ * (user_id, item_id, end_time). Before this, any past booking of any item of the same owner
+ * counted, whatever its status; waiting and rejected bookings no longer do.
+ * There is no in-memory pre-filter: a filter can only turn a user away if it holds every
+ * approved pair, and approvals made by another instance or with plain SQL never reach it,
+ * so each of its misses would still have to ask the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentEligibility {
+    private final BookingRepository bookingRepository;
+
+    public boolean isEligible(Long userId, Long itemId, LocalDateTime now) {
+        return bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(userId, itemId, Status.APPROVED, now);
+    }
+}
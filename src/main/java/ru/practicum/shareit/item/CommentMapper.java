@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item;
+
+public class CommentMapper {
+
+    public static CommentDto toCommentDto(Comment comment) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .authorName(comment.getAuthorName())
+                .created(comment.getCreated())
+                .build();
+    }
+}
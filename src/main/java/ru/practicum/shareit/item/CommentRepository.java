@@ -1,9 +1,14 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-import java.util.Set;
+import java.util.Collection;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    Set<Comment> findByItemId(long itemId);
-}
\ No newline at end of file
+    List<Comment> findByItemId(long itemId);
+
+    @Query("select c from Comment c where c.item.id in ?1")
+    List<Comment> findByItemIdIn(Collection<Long> itemIds);
+}
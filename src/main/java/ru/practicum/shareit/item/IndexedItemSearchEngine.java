@@ -0,0 +1,323 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingCalendar;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Trigram inverted index over available items. A query is answered by taking the
+ * rarest trigram's posting list and checking each candidate with a plain substring
+ * match, so results are the same as the LIKE '%text%' query. Ranked searches score the same
+ * candidates into a bounded {@link SearchRank} instead of collecting and sorting all of them.
+ * Time-window searches rank the top matches and drop those with a booking in the window, asking
+ * {@link BookingCalendar} in batches; when too few are left, the next round takes twice as many.
+ * A rebuild pages the catalog into a new index while searches keep using the old one. Changes
+ * committed meanwhile go to the old index and are also queued, then replayed onto the new one
+ * right before the swap, so a page read before a change cannot undo it.
+ * Changes made by other instances are not seen until the next rebuild, which runs every
+ * shareit.search.index.refresh-interval-ms.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index", matchIfMissing = true)
+class IndexedItemSearchEngine implements ItemSearchEngine {
+    static final int GRAM = 3;
+    private static final int BUILD_PAGE_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final BookingCalendar bookingCalendar;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    private List<Consumer<Index>> pending;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${shareit.search.index.refresh-interval-ms:600000}",
+            fixedDelayString = "${shareit.search.index.refresh-interval-ms:600000}")
+    public synchronized void rebuild() {
+        setPending(new ArrayList<>());
+        Index fresh = new Index();
+        try {
+            int page = 0;
+            Page<Item> chunk;
+            do {
+                chunk = itemRepository.findAll(PageRequest.of(page++, BUILD_PAGE_SIZE, Sort.by("id")));
+                for (Item item : chunk) {
+                    if (Boolean.TRUE.equals(item.getAvailable())) {
+                        fresh.put(IndexedItem.of(item));
+                    }
+                }
+            } while (chunk.hasNext());
+        } catch (RuntimeException e) {
+            setPending(null);
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            pending.forEach(change -> change.accept(fresh));
+            pending = null;
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("search index built: {} items, {} grams", fresh.items.size(), fresh.postings.size());
+    }
+
+    @Override
+    public List<ItemInfo> search(String text) {
+        if (!ready) {
+            return itemRepository.findItemsWhereContainsTheText(text);
+        }
+        lock.readLock().lock();
+        try {
+            List<ItemInfo> result = new ArrayList<>();
+            if (text.length() < GRAM) {
+                for (IndexedItem item : index.items.values()) {
+                    if (item.matches(text)) {
+                        result.add(item);
+                    }
+                }
+                return result;
+            }
+            Set<Long> candidates = null;
+            for (String gram : gramsOf(text)) {
+                Set<Long> posting = index.postings.getOrDefault(gram, Collections.emptySet());
+                if (candidates == null || posting.size() < candidates.size()) {
+                    candidates = posting;
+                }
+            }
+            for (Long id : sorted(candidates)) {
+                IndexedItem item = index.items.get(id);
+                if (item.matches(text)) {
+                    result.add(item);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ItemInfo> search(String text, int from, int size) {
+        if (!ready) {
+            return itemRepository.findRankedItemsWhereContainsTheText(text, from, size);
+        }
+        return rank(text, from + size).page(from);
+    }
+
+    /**
+     * Bookings are checked only for ranked matches not checked in an earlier round.
+     */
+    @Override
+    public List<ItemInfo> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if (!ready) {
+            return itemRepository.findFreeRankedItemsWhereContainsTheText(text, from, size, start, end);
+        }
+        int want = from + size;
+        Set<Long> busy = new HashSet<>();
+        Set<Long> checked = new HashSet<>();
+        for (int k = 2 * want; ; k *= 2) {
+            List<ItemInfo> ranked = rank(text, k).page(0);
+            List<Long> unchecked = new ArrayList<>();
+            for (ItemInfo item : ranked) {
+                if (checked.add(item.getId())) {
+                    unchecked.add(item.getId());
+                }
+            }
+            busy.addAll(bookingCalendar.busyItems(unchecked, start, end));
+            List<ItemInfo> free = new ArrayList<>(want);
+            for (ItemInfo item : ranked) {
+                if (!busy.contains(item.getId()) && free.size() < want) {
+                    free.add(item);
+                }
+            }
+            if (free.size() == want || ranked.size() < k) {
+                return from >= free.size() ? Collections.emptyList() : free.subList(from, free.size());
+            }
+        }
+    }
+
+    private SearchRank rank(String text, int k) {
+        SearchRank rank = new SearchRank(k);
+        lock.readLock().lock();
+        try {
+            if (text.length() < GRAM) {
+                index.items.values().forEach(item -> item.rank(rank, text));
+            } else {
+                Set<Long> candidates = null;
+                for (String gram : gramsOf(text)) {
+                    Set<Long> posting = index.postings.getOrDefault(gram, Collections.emptySet());
+                    if (candidates == null || posting.size() < candidates.size()) {
+                        candidates = posting;
+                    }
+                }
+                for (Long id : candidates) {
+                    index.items.get(id).rank(rank, text);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return rank;
+    }
+
+    @Override
+    public void onSaved(Item item) {
+        IndexedItem snapshot = IndexedItem.of(item);
+        afterCommit(() -> apply(target -> {
+            target.remove(snapshot.getId());
+            if (Boolean.TRUE.equals(snapshot.getAvailable())) {
+                target.put(snapshot);
+            }
+        }));
+    }
+
+    @Override
+    public void onDeleted(Long itemId) {
+        afterCommit(() -> apply(target -> target.remove(itemId)));
+    }
+
+    private void setPending(List<Consumer<Index>> changes) {
+        lock.writeLock().lock();
+        try {
+            pending = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<Long> sorted(Set<Long> ids) {
+        List<Long> list = new ArrayList<>(ids);
+        Collections.sort(list);
+        return list;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Items by id and item ids by trigram. Guarded by the engine's lock once published.
+     */
+    private static final class Index {
+        private final Map<Long, IndexedItem> items = new TreeMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+
+        void put(IndexedItem item) {
+            remove(item.getId());
+            items.put(item.getId(), item);
+            for (String gram : item.grams()) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(item.getId());
+            }
+        }
+
+        void remove(Long itemId) {
+            IndexedItem old = items.remove(itemId);
+            if (old == null) {
+                return;
+            }
+            for (String gram : old.grams()) {
+                Set<Long> posting = postings.get(gram);
+                if (posting != null) {
+                    posting.remove(itemId);
+                    if (posting.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    @Value
+    static class IndexedItem implements ItemInfo {
+        Long id;
+        String name;
+        String description;
+        Boolean available;
+        @Getter(AccessLevel.NONE)
+        String lowerName;
+        @Getter(AccessLevel.NONE)
+        String lowerDescription;
+
+        static IndexedItem of(Item item) {
+            return new IndexedItem(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                    lower(item.getName()), lower(item.getDescription()));
+        }
+
+        boolean matches(String text) {
+            return lowerName.contains(text) || lowerDescription.contains(text);
+        }
+
+        void rank(SearchRank rank, String text) {
+            rank.offer(this, lowerName, lowerDescription, text);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = gramsOf(lowerName);
+            grams.addAll(gramsOf(lowerDescription));
+            return grams;
+        }
+
+        private static String lower(String value) {
+            return value == null ? "" : value.toLowerCase();
+        }
+    }
+}
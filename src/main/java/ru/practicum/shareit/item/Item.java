@@ -17,7 +17,8 @@ import java.util.Set;
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_id_seq")
+    @SequenceGenerator(name = "items_id_seq", sequenceName = "items_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false, updatable = false, unique = true)
     private Long id;
     @NotBlank(message = "login cannot be empty")
@@ -32,6 +33,11 @@ public class Item {
     @NotNull
     @Column(name = "user_id", nullable = false)
     private Long userId;
+    @Column(name = "request_id")
+    private Long requestId;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
     @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
     private Set<Comment> comments;
 
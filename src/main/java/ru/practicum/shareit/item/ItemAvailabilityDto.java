@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.TimeWindow;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private Boolean available;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<TimeWindow> free;
+}
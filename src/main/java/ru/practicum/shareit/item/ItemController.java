@@ -1,65 +1,150 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.bulkhead.Bulkheads;
+import ru.practicum.shareit.bulkhead.EndpointGroup;
+import ru.practicum.shareit.etag.ETags;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.exception.ValidationExceptionUser;
+import ru.practicum.shareit.ratelimit.RateLimited;
+import ru.practicum.shareit.stream.NdjsonWriter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 @RestController
 @RequestMapping("/items")
+@RateLimited(EndpointGroup.ITEMS)
 public class ItemController {
+    private static final int DEFAULT_SEARCH_SIZE = 20;
+    private static final int MAX_SEARCH_SIZE = 100;
+    private static final int MAX_SEARCH_DEPTH = 10_000;
+    private static final int DEFAULT_AVAILABILITY_DAYS = 30;
+
     ItemService itemService;
+    NdjsonWriter ndjsonWriter;
+    Bulkheads bulkheads;
 
     @Autowired
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, NdjsonWriter ndjsonWriter, Bulkheads bulkheads) {
         this.itemService = itemService;
+        this.ndjsonWriter = ndjsonWriter;
+        this.bulkheads = bulkheads;
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto get(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId) {
-        return itemService.getItem(itemId, userId);
+    public CompletableFuture<ResponseEntity<ItemDto>> get(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return bulkheads.submit(EndpointGroup.ITEMS, () -> {
+            String etag = itemService.getItemTag(itemId, userId);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+            return ETags.ok(etag, itemService.getItem(itemId, userId));
+        });
     }
 
     @PostMapping
-    public ItemDto create(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ItemDto> create(@RequestHeader("X-Sharer-User-Id") Long userId,
                           @Valid @RequestBody ItemDto item) {
         if (userId != null) {
-            return itemService.addNewItem(userId, item);
+            return bulkheads.submit(EndpointGroup.ITEMS, () -> itemService.addNewItem(userId, item));
         }
         throw new UserNotFoundException("User not found");
     }
 
+    @PostMapping("/batch")
+    public CompletableFuture<BatchResult<ItemDto>> createAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                            @RequestBody List<ItemImportDto> items) {
+        return bulkheads.submit(EndpointGroup.ITEMS, () -> itemService.addItems(userId, items));
+    }
+
     @PatchMapping("/{itemId}")
-    public ItemDto update(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId,
+    public CompletableFuture<ItemDto> update(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId,
                           @Valid @RequestBody ItemDtoUpdate item) {
         if (userId != null) {
-            return itemService.updateItem(itemId, userId, item);
+            return bulkheads.submit(EndpointGroup.ITEMS, () -> itemService.updateItem(itemId, userId, item));
         }
         throw new UserNotFoundException("User not found");
     }
 
     @GetMapping
-    public List<ItemDto> getAll(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public CompletableFuture<List<ItemDto>> getAll(@RequestHeader("X-Sharer-User-Id") Long userId) {
         if (userId != null) {
-            return itemService.getUserItems(userId);
+            return bulkheads.submit(EndpointGroup.ITEMS, () -> itemService.getUserItems(userId));
         }
         throw new UserNotFoundException("User not found");
     }
 
     @GetMapping("/search")
-    public List<ItemInfo> getItemByQueryField(@RequestParam(name = "text") String queryField) {
-        return itemService.search(queryField.toLowerCase());
+    public CompletableFuture<List<ItemInfo>> getItemByQueryField(@RequestParam(name = "text") String queryField,
+                                                                @RequestParam(name = "from", required = false) Integer from,
+                                                                @RequestParam(name = "size", required = false) Integer size,
+                                                                @RequestParam(name = "start", required = false)
+                                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                                @RequestParam(name = "end", required = false)
+                                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        String text = queryField.toLowerCase();
+        if (from == null && size == null && start == null && end == null) {
+            return bulkheads.submit(EndpointGroup.ITEMS, () -> itemService.search(text));
+        }
+        int offset = from == null ? 0 : from;
+        int limit = size == null ? DEFAULT_SEARCH_SIZE : size;
+        if (offset < 0 || limit <= 0 || limit > MAX_SEARCH_SIZE || offset > MAX_SEARCH_DEPTH) {
+            throw new ValidationExceptionUser("from must be 0.." + MAX_SEARCH_DEPTH + ", size 1.." + MAX_SEARCH_SIZE);
+        }
+        if (start == null && end == null) {
+            return bulkheads.submit(EndpointGroup.ITEMS, () -> itemService.search(text, offset, limit));
+        }
+        if (start == null || end == null) {
+            throw new ValidationExceptionUser("start and end must be given together");
+        }
+        return bulkheads.submit(EndpointGroup.ITEMS, () -> itemService.searchFree(text, start, end, offset, limit));
+    }
+
+    @GetMapping(path = "/search", produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public void streamItemByQueryField(@RequestParam(name = "text") String queryField, HttpServletResponse response) {
+        ndjsonWriter.<ItemInfo>stream(response, sink -> itemService.streamSearch(queryField.toLowerCase(), sink));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public CompletableFuture<ItemAvailabilityDto> getAvailability(@PathVariable Long itemId,
+                                                                  @RequestParam(name = "from", required = false)
+                                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                  @RequestParam(name = "to", required = false)
+                                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plusDays(DEFAULT_AVAILABILITY_DAYS);
+        return bulkheads.submit(EndpointGroup.ITEMS, () -> itemService.getAvailability(List.of(itemId), start, end).get(0));
+    }
+
+    @GetMapping("/availability")
+    public CompletableFuture<List<ItemAvailabilityDto>> getAvailability(@RequestParam(name = "ids") List<Long> itemIds,
+                                                                        @RequestParam(name = "from", required = false)
+                                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                        @RequestParam(name = "to", required = false)
+                                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plusDays(DEFAULT_AVAILABILITY_DAYS);
+        return bulkheads.submit(EndpointGroup.ITEMS, () -> itemService.getAvailability(itemIds, start, end));
     }
 
     @PostMapping("/{itemId}/comment")
-    public Comment getComment(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId, @Valid @RequestBody Comment comment) {
+    public CompletableFuture<CommentDto> getComment(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId, @Valid @RequestBody Comment comment) {
         if (userId != null) {
             if (itemId != null) {
-                return itemService.addComment(userId, itemId, comment);
+                return bulkheads.submit(EndpointGroup.ITEMS,
+                        () -> CommentMapper.toCommentDto(itemService.addComment(userId, itemId, comment)));
             }
             throw new ItemNotFoundException("Item not found");
         }
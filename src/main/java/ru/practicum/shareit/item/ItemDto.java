@@ -3,11 +3,10 @@ package ru.practicum.shareit.item;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.BookingByBooker;
-import ru.practicum.shareit.request.ItemRequest;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
-import java.util.Set;
+import java.util.List;
 
 @Data
 @Builder
@@ -21,11 +20,11 @@ public class ItemDto {
     private String description;
     @NotNull
     private Boolean available;
-    private ItemRequest request;
+    private Long requestId;
 
     private BookingByBooker lastBooking;
 
     private BookingByBooker nextBooking;
 
-    private Set<Comment> comments;
+    private List<CommentDto> comments;
 }
\ No newline at end of file
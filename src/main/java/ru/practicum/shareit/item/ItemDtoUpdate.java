@@ -2,7 +2,6 @@ package ru.practicum.shareit.item;
 
 import lombok.Builder;
 import lombok.Data;
-import ru.practicum.shareit.request.ItemRequest;
 
 @Data
 @Builder
@@ -11,5 +10,4 @@ public class ItemDtoUpdate {
     private String name;
     private String description;
     private Boolean available;
-    private ItemRequest request;
 }
\ No newline at end of file
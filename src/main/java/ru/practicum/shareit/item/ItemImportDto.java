@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of POST /items/batch. Every row is owned by the X-Sharer-User-Id caller.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportDto {
+    private String name;
+    private String description;
+    private Boolean available;
+}
@@ -9,8 +9,17 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .comments(item.getComments())
-//                .request(item.getRequest())
+                .requestId(item.getRequestId())
+                .build();
+    }
+
+    public static ItemDto toItemDto(ItemSnapshot item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
                 .build();
     }
 
@@ -20,13 +29,27 @@ public class ItemMapper {
             item.setName(itemDto.getName());
             item.setDescription(itemDto.getDescription());
             item.setAvailable(itemDto.getAvailable());
-//            item.setRequest(itemDto.getRequest());
+            item.setRequestId(itemDto.getRequestId());
             item.setUserId(user);
             return item;
         }
         throw new ValidationExceptionUser("not all data is entered");
     }
 
+    public static Item toItem(ItemImportDto itemDto, Long user) {
+        Item item = new Item();
+        item.setName(itemDto.getName());
+        item.setDescription(itemDto.getDescription());
+        item.setAvailable(itemDto.getAvailable());
+        item.setUserId(user);
+        return item;
+    }
+
+    public static ItemSnapshot toItemSnapshot(Item item) {
+        return new ItemSnapshot(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getUserId(), item.getRequestId());
+    }
+
     public static ItemDtoUpdate toItemDtoUpdate(Item item) {
         return ItemDtoUpdate.builder()
                 .id(item.getId())
@@ -2,15 +2,31 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import ru.practicum.shareit.stream.NdjsonWriter;
 
-
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 
 public interface ItemRepository extends JpaRepository<Item, Long>, QuerydslPredicateExecutor<Item> {
     List<Item> findByUserId(long userId);
 
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    /**
+     * Locks the item row until the end of the transaction.
+     */
+    @Query(value = "select id from items where id = ?1 for update", nativeQuery = true)
+    Long lockById(Long id);
+
     @Query(value = "select * " +
             "from items as t " +
             "where (LOWER(t.name) LIKE CONCAT('%', ?1, '%') or LOWER(t.description) LIKE CONCAT('%', ?1, '%'))" +
@@ -18,5 +34,56 @@ public interface ItemRepository extends JpaRepository<Item, Long>, QuerydslPredi
             nativeQuery = true)
     List<ItemInfo> findItemsWhereContainsTheText(String text);
 
+    /**
+     * Name matches first, then occurrences of the text in name and description, then newest.
+     */
+    @Query(value = "select * " +
+            "from items as t " +
+            "where (LOWER(t.name) LIKE CONCAT('%', ?1, '%') or LOWER(t.description) LIKE CONCAT('%', ?1, '%'))" +
+            "and t.available = true " +
+            "order by case when LOWER(t.name) LIKE CONCAT('%', ?1, '%') then 1 else 0 end desc, " +
+            "(LENGTH(COALESCE(t.name, '')) + LENGTH(COALESCE(t.description, '')) " +
+            "- LENGTH(REPLACE(LOWER(COALESCE(t.name, '')), ?1, '')) " +
+            "- LENGTH(REPLACE(LOWER(COALESCE(t.description, '')), ?1, ''))) / LENGTH(?1) desc, " +
+            "t.id desc " +
+            "limit ?3 offset ?2",
+            nativeQuery = true)
+    List<ItemInfo> findRankedItemsWhereContainsTheText(String text, int from, int size);
+
+    /**
+     * Ranked like {@link #findRankedItemsWhereContainsTheText}, without items that have a WAITING or
+     * APPROVED booking overlapping [start, end). The anti-join probes booking (item_id, end_time).
+     */
+    @Query(value = "select * " +
+            "from items as t " +
+            "where (LOWER(t.name) LIKE CONCAT('%', ?1, '%') or LOWER(t.description) LIKE CONCAT('%', ?1, '%'))" +
+            "and t.available = true " +
+            "and not exists (select 1 from booking as b where b.item_id = t.id " +
+            "and b.end_time > ?4 and b.start_time < ?5 and b.status in ('WAITING', 'APPROVED')) " +
+            "order by case when LOWER(t.name) LIKE CONCAT('%', ?1, '%') then 1 else 0 end desc, " +
+            "(LENGTH(COALESCE(t.name, '')) + LENGTH(COALESCE(t.description, '')) " +
+            "- LENGTH(REPLACE(LOWER(COALESCE(t.name, '')), ?1, '')) " +
+            "- LENGTH(REPLACE(LOWER(COALESCE(t.description, '')), ?1, ''))) / LENGTH(?1) desc, " +
+            "t.id desc " +
+            "limit ?3 offset ?2",
+            nativeQuery = true)
+    List<ItemInfo> findFreeRankedItemsWhereContainsTheText(String text, int from, int size, LocalDateTime start,
+                                                           LocalDateTime end);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = NdjsonWriter.FETCH_SIZE))
+    @Query(value = "select * " +
+            "from items as t " +
+            "where (LOWER(t.name) LIKE CONCAT('%', ?1, '%') or LOWER(t.description) LIKE CONCAT('%', ?1, '%'))" +
+            "and t.available = true",
+            nativeQuery = true)
+    Stream<ItemInfo> streamItemsWhereContainsTheText(String text);
+
+    @Query(value = "select i.user_id as ownerId, i.version as version, s.version as summaryVersion, " +
+            "s.next_start as nextStart, (select max(c.id) from comments as c where c.item_id = i.id) as lastCommentId " +
+            "from items as i left join item_booking_summary as s on s.item_id = i.id " +
+            "where i.id = ?1",
+            nativeQuery = true)
+    Optional<ItemVersion> findVersionById(Long itemId);
+
     void deleteById(Long itemId);
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ItemSearchEngine {
+
+    List<ItemInfo> search(String text);
+
+    /**
+     * Matches ranked by {@link SearchRank}, positions {@code from} to {@code from + size}.
+     */
+    List<ItemInfo> search(String text, int from, int size);
+
+    /**
+     * Ranked matches with no WAITING or APPROVED booking overlapping [start, end).
+     */
+    List<ItemInfo> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    default void stream(String text, Consumer<ItemInfo> sink) {
+        search(text).forEach(sink);
+    }
+
+    default void onSaved(Item item) {
+    }
+
+    default void onDeleted(Long itemId) {
+    }
+}
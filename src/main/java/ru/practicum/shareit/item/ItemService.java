@@ -1,14 +1,19 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.batch.BatchResult;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
     @Transactional
     ItemDto addNewItem(Long userId, ItemDto itemDto);
 
+    BatchResult<ItemDto> addItems(Long userId, List<ItemImportDto> items);
+
     ItemDto updateItem(Long itemId, Long userId, ItemDtoUpdate itemDto);
 
     @Transactional
@@ -19,7 +24,18 @@ public interface ItemService {
 
     public ItemDto getItem(Long id, Long userId);
 
+    String getItemTag(Long id, Long userId);
+
     List<ItemInfo> search(String text);
 
+    List<ItemInfo> search(String text, int from, int size);
+
+    List<ItemInfo> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    @Transactional(readOnly = true)
+    void streamSearch(String text, Consumer<ItemInfo> sink);
+
+    List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to);
+
     public Comment addComment(Long userId, Long itemId, Comment comment);
 }
\ No newline at end of file
@@ -4,38 +4,76 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
-import ru.practicum.shareit.booking.BookingMapper;
-import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.batch.BatchRow;
+import ru.practicum.shareit.batch.BatchWriter;
+import ru.practicum.shareit.booking.BookingCalendar;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.ItemBookingTracker;
+import ru.practicum.shareit.booking.TimeWindow;
+import ru.practicum.shareit.cache.NearCache;
+import ru.practicum.shareit.etag.ETags;
 import ru.practicum.shareit.exception.ItemNotFoundException;
+import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.exception.TheItemHasAlreadyBeenBooked;
 import ru.practicum.shareit.exception.UserNotFoundException;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.exception.ValidationExceptionUser;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserSnapshot;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-
-import static ru.practicum.shareit.booking.Status.REJECTED;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 class ItemServiceImpl implements ItemService {
+    static final int MAX_AVAILABILITY_ITEMS = 100;
+    static final Duration MAX_AVAILABILITY_RANGE = Duration.ofDays(366);
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
-    private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final NearCache<Long, UserSnapshot> userCache;
+    private final NearCache<Long, ItemSnapshot> itemCache;
+    private final BatchWriter batchWriter;
+    private final ItemBookingTracker itemBookingTracker;
+    private final CommentEligibility commentEligibility;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BookingCalendar bookingCalendar;
 
     @Override
     public List<ItemDto> getUserItems(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        findUser(userId);
         List<Item> userItems = itemRepository.findByUserId(userId);
         List<ItemDto> itemDto = new ArrayList<>();
+        if (userItems.isEmpty()) {
+            return itemDto;
+        }
+        List<Long> itemIds = userItems.stream().map(Item::getId).collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = itemBookingTracker.summaries(itemIds);
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
         for (Item item : userItems) {
-            itemDto.add(getItem(item.getId(), userId));
+            ItemDto dto = ItemMapper.toItemDto(item);
+            ItemBookingSummary summary = summaries.get(item.getId());
+            if (summary != null) {
+                dto.setLastBooking(summary.getLastBooking());
+                dto.setNextBooking(summary.getNextBooking());
+            }
+            dto.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+            itemDto.add(dto);
         }
         log.info("get user items {}", userItems);
         return itemDto;
@@ -44,17 +82,39 @@ class ItemServiceImpl implements ItemService {
     @Transactional
     @Override
     public ItemDto addNewItem(Long userId, ItemDto itemDto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        UserSnapshot user = findUser(userId);
+        if (itemDto.getRequestId() != null && !itemRequestRepository.existsById(itemDto.getRequestId())) {
+            throw new ItemRequestNotFoundException("Request not found");
+        }
         Item item = itemRepository.save(ItemMapper.toItem(itemDto, user.getId()));
+        itemSearchEngine.onSaved(item);
         log.info("add new item {}", item);
         return ItemMapper.toItemDto(item);
     }
 
+    @Override
+    public BatchResult<ItemDto> addItems(Long userId, List<ItemImportDto> items) {
+        findUser(userId);
+        BatchResult<ItemDto> result = new BatchResult<>();
+        List<BatchRow<Item>> rows = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                Item item = ItemMapper.toItem(items.get(i), userId);
+                batchWriter.validate(item);
+                rows.add(new BatchRow<>(i, item));
+            } catch (ValidationExceptionUser e) {
+                result.reject(i, e.getMessage());
+            }
+        }
+        batchWriter.persist(rows, itemSearchEngine::onSaved, ItemMapper::toItemDto, result);
+        log.info("add items: {} created, {} rejected", result.getCreated().size(), result.getErrors().size());
+        return result;
+    }
+
+    @Transactional
     @Override
     public ItemDto updateItem(Long itemId, Long userId, ItemDtoUpdate itemDtoUpdate) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        findUser(userId);
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Item not found"));
         if (userId.equals(item.getUserId())) {
             if (itemDtoUpdate.getName() != null) {
@@ -67,6 +127,8 @@ class ItemServiceImpl implements ItemService {
                 item.setDescription(itemDtoUpdate.getDescription());
             }
             Item itemUpdate = itemRepository.save(item);
+            itemCache.invalidate(itemId);
+            itemSearchEngine.onSaved(itemUpdate);
             Item items = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Item not found"));
             log.info("update item {}", items);
             return ItemMapper.toItemDto(items);
@@ -78,60 +140,160 @@ class ItemServiceImpl implements ItemService {
     @Override
     public void deleteItem(Long userId, Long itemId) {
         itemRepository.deleteById(itemId);
+        itemCache.invalidate(itemId);
+        itemSearchEngine.onDeleted(itemId);
         log.info("delete item {}", itemId);
     }
 
     @Override
     public ItemDto getItem(Long id, Long userId) {
-        Item item = itemRepository.findById(id).orElseThrow(() -> new ItemNotFoundException("Item not found"));
+        ItemSnapshot item = findItem(id);
         ItemDto itemDto = ItemMapper.toItemDto(item);
         if (item.getUserId().equals(userId)) {
-            LocalDateTime date = LocalDateTime.now();
-            log.info("Время: {}", date);
-            List<Booking> bookingsPast = bookingRepository.findByItemIdPast(id, date, REJECTED);
-            List<Booking> bookingsFuture = bookingRepository.findByItemIdFuture(id, date, REJECTED);
-            if (bookingsPast.size() != 0) {
-                itemDto.setLastBooking(BookingMapper.toBookingByBooker(bookingsPast.get(0)));
-            }
-            if (bookingsFuture.size() != 0) {
-                if (!bookingsFuture.get(0).getStatus().equals(REJECTED)) {
-                    itemDto.setNextBooking(BookingMapper.toBookingByBooker(bookingsFuture.get(0)));
-                }
-            }
+            itemBookingTracker.summary(id).ifPresent(summary -> {
+                itemDto.setLastBooking(summary.getLastBooking());
+                itemDto.setNextBooking(summary.getNextBooking());
+            });
         }
-        itemDto.setComments(commentRepository.findByItemId(id));
+        itemDto.setComments(commentRepository.findByItemId(id).stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList()));
         log.info("get item {}", item);
         return itemDto;
     }
 
+    /**
+     * Owners also see the booking summary, so their tag includes its version. While the next
+     * booking has started but the summary is not rolled forward yet, no tag is given.
+     */
+    @Override
+    public String getItemTag(Long id, Long userId) {
+        return itemRepository.findVersionById(id)
+                .map(version -> {
+                    if (!version.getOwnerId().equals(userId)) {
+                        return ETags.of("i", id, version.getVersion(), version.getLastCommentId());
+                    }
+                    if (version.getNextStart() != null && !version.getNextStart().isAfter(LocalDateTime.now())) {
+                        return null;
+                    }
+                    return ETags.of("i", id, version.getVersion(), version.getLastCommentId(),
+                            "o", version.getSummaryVersion());
+                })
+                .orElse(null);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ItemInfo> search(String text) {
         if (!text.isBlank()) {
             log.info("search {}", text);
-            return itemRepository.findItemsWhereContainsTheText(text);
+            return itemSearchEngine.search(text);
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemInfo> search(String text, int from, int size) {
+        if (!text.isBlank()) {
+            log.info("ranked search {} from {} size {}", text, from, size);
+            return itemSearchEngine.search(text, from, size);
         }
         return new ArrayList<>();
     }
 
+    /**
+     * Bookings that ended are not tracked, so the part of the window before now is not checked.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemInfo> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!start.isBefore(end) || !end.isAfter(now)) {
+            throw new ValidationExceptionUser("start must be before end, end must be in the future");
+        }
+        if (Duration.between(start, end).compareTo(MAX_AVAILABILITY_RANGE) > 0) {
+            throw new ValidationExceptionUser("start and end must be at most " + MAX_AVAILABILITY_RANGE.toDays() + " days apart");
+        }
+        if (!text.isBlank()) {
+            log.info("free search {} from {} to {}", text, start, end);
+            return itemSearchEngine.searchFree(text, start.isBefore(now) ? now : start, end, from, size);
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamSearch(String text, Consumer<ItemInfo> sink) {
+        if (!text.isBlank()) {
+            log.info("stream search {}", text);
+            itemSearchEngine.stream(text, sink);
+        }
+    }
+
+    /**
+     * Unavailable items have no free windows. All items share one booking range query.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(MAX_AVAILABILITY_RANGE) > 0) {
+            throw new ValidationExceptionUser("from must be before to, at most " + MAX_AVAILABILITY_RANGE.toDays() + " days apart");
+        }
+        Set<Long> ids = new LinkedHashSet<>(itemIds);
+        if (ids.isEmpty() || ids.size() > MAX_AVAILABILITY_ITEMS) {
+            throw new ValidationExceptionUser("ids must list 1.." + MAX_AVAILABILITY_ITEMS + " items");
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        for (Long id : ids) {
+            if (!items.containsKey(id)) {
+                throw new ItemNotFoundException("Item not found: " + id);
+            }
+        }
+        List<Long> available = ids.stream()
+                .filter(id -> Boolean.TRUE.equals(items.get(id).getAvailable()))
+                .collect(Collectors.toList());
+        Map<Long, List<TimeWindow>> free = bookingCalendar.freeWindows(available, from, to);
+        List<ItemAvailabilityDto> result = new ArrayList<>();
+        for (Long id : ids) {
+            result.add(ItemAvailabilityDto.builder()
+                    .itemId(id)
+                    .available(items.get(id).getAvailable())
+                    .from(from)
+                    .to(to)
+                    .free(free.getOrDefault(id, List.of()))
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * The cached user and item are snapshots, so the comment refers to both by reference.
+     */
+    @Transactional
     @Override
     public Comment addComment(Long userId, Long itemId, Comment comment) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Item not found"));
+        UserSnapshot user = findUser(userId);
+        ItemSnapshot item = findItem(itemId);
         LocalDateTime date = LocalDateTime.now();
-        List<Booking> bookings = bookingRepository.findBookingPastItemsByOwner(item.getUserId(), date);
-        for (Booking booking : bookings) {
-            if (booking.getBooker().getId().equals(userId)) {
-                comment.setItem(item);
-                comment.setUser(user);
-                comment.setCreated(date);
-                comment.setAuthorName(user.getName());
-                return commentRepository.save(comment);
-            }
+        if (commentEligibility.isEligible(userId, itemId, date)) {
+            comment.setItem(itemRepository.getReferenceById(item.getId()));
+            comment.setUser(userRepository.getReferenceById(user.getId()));
+            comment.setCreated(date);
+            comment.setAuthorName(user.getName());
+            return commentRepository.save(comment);
         }
         throw new TheItemHasAlreadyBeenBooked("You can't book this thing");
     }
 
+    private UserSnapshot findUser(Long userId) {
+        return userCache.get(userId, id -> userRepository.findById(id).map(UserMapper::toUserSnapshot))
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    }
 
+    private ItemSnapshot findItem(Long itemId) {
+        return itemCache.get(itemId, id -> itemRepository.findById(id).map(ItemMapper::toItemSnapshot))
+                .orElseThrow(() -> new ItemNotFoundException("Item not found"));
+    }
 }
\ No newline at end of file
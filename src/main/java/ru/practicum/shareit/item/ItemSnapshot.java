@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item;
+
+import lombok.Value;
+
+/**
+ * Immutable copy of an item kept in the item cache. Associations that need the item
+ * take a reference by id instead.
+ */
+@Value
+public class ItemSnapshot {
+    Long id;
+    String name;
+    String description;
+    Boolean available;
+    Long userId;
+    Long requestId;
+}
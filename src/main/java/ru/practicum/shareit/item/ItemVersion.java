@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version counters behind the item view: the item row, its booking summary and its newest comment.
+ */
+public interface ItemVersion {
+    Long getOwnerId();
+
+    Long getVersion();
+
+    Long getSummaryVersion();
+
+    LocalDateTime getNextStart();
+
+    Long getLastCommentId();
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Relevance order of search hits: items whose name contains the text come first, then more
+ * occurrences in name and description, then newer (higher) ids. Keeps only the best {@code k}
+ * hits in a heap, so a query never holds or sorts more than k candidates.
+ */
+class SearchRank {
+    static final Comparator<Hit> ORDER = Comparator.comparing((Hit hit) -> hit.nameMatch)
+            .thenComparingInt(hit -> hit.occurrences)
+            .thenComparingLong(hit -> hit.item.getId())
+            .reversed();
+
+    private final int k;
+    private final PriorityQueue<Hit> best;
+
+    SearchRank(int k) {
+        this.k = k;
+        this.best = new PriorityQueue<>(Math.min(k, 1024), ORDER.reversed());
+    }
+
+    void offer(ItemInfo item, String lowerName, String lowerDescription, String text) {
+        int inName = occurrences(lowerName, text);
+        int inDescription = occurrences(lowerDescription, text);
+        if (inName + inDescription == 0) {
+            return;
+        }
+        Hit hit = new Hit(item, inName > 0, inName + inDescription);
+        if (best.size() < k) {
+            best.add(hit);
+        } else if (ORDER.compare(hit, best.peek()) < 0) {
+            best.poll();
+            best.add(hit);
+        }
+    }
+
+    List<ItemInfo> page(int from) {
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(ORDER);
+        if (from >= hits.size()) {
+            return Collections.emptyList();
+        }
+        List<ItemInfo> page = new ArrayList<>(hits.size() - from);
+        for (Hit hit : hits.subList(from, hits.size())) {
+            page.add(hit.item);
+        }
+        return page;
+    }
+
+    static int occurrences(String value, String text) {
+        int count = 0;
+        for (int at = value.indexOf(text); at >= 0; at = value.indexOf(text, at + text.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static final class Hit {
+        private final ItemInfo item;
+        private final Boolean nameMatch;
+        private final int occurrences;
+
+        private Hit(ItemInfo item, boolean nameMatch, int occurrences) {
+            this.item = item;
+            this.nameMatch = nameMatch;
+            this.occurrences = occurrences;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "sql")
+class SqlItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemInfo> search(String text) {
+        return itemRepository.findItemsWhereContainsTheText(text);
+    }
+
+    @Override
+    public List<ItemInfo> search(String text, int from, int size) {
+        return itemRepository.findRankedItemsWhereContainsTheText(text, from, size);
+    }
+
+    @Override
+    public List<ItemInfo> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        return itemRepository.findFreeRankedItemsWhereContainsTheText(text, from, size, start, end);
+    }
+
+    @Override
+    public void stream(String text, Consumer<ItemInfo> sink) {
+        try (Stream<ItemInfo> items = itemRepository.streamItemsWhereContainsTheText(text)) {
+            items.forEach(sink);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes each event to in-process {@code @EventListener(OutboxMessage.class)} methods.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.sink", havingValue = "events", matchIfMissing = true)
+class ApplicationEventOutboxSink implements OutboxSink {
+    private final ApplicationEventPublisher publisher;
+
+    ApplicationEventOutboxSink(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        messages.forEach(publisher::publishEvent);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(schema = "public", name = "outbox")
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false, unique = true)
+    private Long id;
+    @Column(name = "aggregate_type", nullable = false)
+    private String aggregateType;
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+    @Column(name = "event_type", nullable = false)
+    private String type;
+    @Column(name = "payload", nullable = false)
+    private String payload;
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+}
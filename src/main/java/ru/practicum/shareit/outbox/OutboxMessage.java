@@ -0,0 +1,23 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox row as handed to an {@link OutboxSink}; {@code payload} is the event as JSON.
+ */
+@Value
+public class OutboxMessage {
+    Long id;
+    String aggregateType;
+    Long aggregateId;
+    String type;
+    String payload;
+    LocalDateTime created;
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(), event.getType(),
+                event.getPayload(), event.getCreated());
+    }
+}
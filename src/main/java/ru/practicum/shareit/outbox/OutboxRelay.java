@@ -0,0 +1,68 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox on a timer: each batch is read, handed to the {@link OutboxSink} and
+ * deleted in one transaction. Runs until a batch comes back short or the sink fails.
+ * Events are not delivered in a global order: identity ids are taken at insert, not at commit,
+ * and with SKIP LOCKED several relays publish batches side by side. The events of one booking
+ * carry its version, which is the order to apply them in.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean skipLocked;
+    private final Counter relayed;
+
+    public OutboxRelay(OutboxRepository outboxRepository, OutboxSink sink, PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry, @Value("${shareit.outbox.batch-size:500}") int batchSize,
+                       @Value("${shareit.outbox.skip-locked:false}") boolean skipLocked) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.skipLocked = skipLocked;
+        this.relayed = meterRegistry.counter("outbox.relayed");
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        try {
+            int drained;
+            do {
+                drained = transactionTemplate.execute(status -> drainBatch());
+            } while (drained == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int drainBatch() {
+        List<OutboxEvent> events = skipLocked
+                ? outboxRepository.findOldestForUpdateSkipLocked(batchSize)
+                : outboxRepository.findOldestForUpdate(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        sink.publish(events.stream().map(OutboxMessage::of).collect(Collectors.toList()));
+        outboxRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).collect(Collectors.toList()));
+        relayed.increment(events.size());
+        return events.size();
+    }
+}
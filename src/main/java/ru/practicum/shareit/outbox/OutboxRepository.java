@@ -0,0 +1,28 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lowest ids first, locked. A second relay waits for the rows another relay holds and finds
+     * them deleted once that batch commits, so several instances drain the table one at a time.
+     * For databases without {@code SKIP LOCKED}, such as H2.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> findOldestForUpdate(Pageable pageable);
+
+    /**
+     * Lowest ids first, skipping rows another relay has locked, so several instances drain
+     * disjoint batches at the same time. PostgreSQL syntax.
+     */
+    @Query(value = "select * from outbox order by id limit ?1 for update skip locked", nativeQuery = true)
+    List<OutboxEvent> findOldestForUpdateSkipLocked(int limit);
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.List;
+
+/**
+ * Receives drained outbox events in id order. Runs inside the relay's transaction: if it
+ * throws, the batch stays in the table and is offered again, so delivery is at least once.
+ */
+public interface OutboxSink {
+    void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits of one caller in one endpoint group. The rate is a token bucket kept as a single
+ * "theoretical arrival time" (GCRA): admitting a request moves it one interval ahead with a CAS,
+ * and a request is refused while it is more than the burst ahead of now. No locks are taken.
+ */
+class CallerLimit {
+    /**
+     * Returned by {@link #tryAcquire} once the limit has been retired; look the caller up again.
+     */
+    static final long RETIRED = -1;
+    private static final int RETIRED_IN_FLIGHT = Integer.MIN_VALUE / 2;
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxConcurrent;
+    private final AtomicLong arrival;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    CallerLimit(long intervalNanos, int burst, int maxConcurrent, long now) {
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = intervalNanos * burst;
+        this.maxConcurrent = maxConcurrent;
+        this.arrival = new AtomicLong(now);
+    }
+
+    /**
+     * Returns 0 when a permit was taken, {@link #RETIRED} when the limit was evicted, otherwise
+     * how many nanoseconds to wait before the next try. A refused request holds nothing.
+     */
+    long tryAcquire(long now) {
+        int taken = inFlight.incrementAndGet();
+        if (taken < 0) {
+            inFlight.decrementAndGet();
+            return RETIRED;
+        }
+        if (taken > maxConcurrent) {
+            inFlight.decrementAndGet();
+            return intervalNanos;
+        }
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long ahead = next - now - toleranceNanos;
+            if (ahead > 0) {
+                inFlight.decrementAndGet();
+                return ahead;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Retires the limit if it has nothing in flight and a full bucket, after which every
+     * {@link #tryAcquire} returns {@link #RETIRED}. The in-flight count is swapped from 0 with a CAS,
+     * so a request that got in first keeps the limit alive; a permit taken and returned between the
+     * bucket check and the CAS is caught by checking the bucket again.
+     */
+    boolean retire(long now) {
+        if (arrival.get() > now || !inFlight.compareAndSet(0, RETIRED_IN_FLIGHT)) {
+            return false;
+        }
+        if (arrival.get() > now) {
+            inFlight.addAndGet(-RETIRED_IN_FLIGHT);
+            return false;
+        }
+        return true;
+    }
+}
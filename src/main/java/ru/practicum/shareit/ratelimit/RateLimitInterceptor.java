@@ -0,0 +1,70 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import ru.practicum.shareit.bulkhead.EndpointGroup;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Takes the caller's permit before the handler runs and returns it once the response is complete,
+ * which for async handlers is at the end of the async dispatch.
+ */
+class RateLimitInterceptor implements AsyncHandlerInterceptor {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String PERMIT = RateLimitInterceptor.class.getName() + ".permit";
+
+    private final RateLimiter rateLimiter;
+    private final Map<Method, Optional<EndpointGroup>> groups = new ConcurrentHashMap<>();
+
+    RateLimitInterceptor(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        String header = request.getHeader(USER_HEADER);
+        if (header == null) {
+            return true;
+        }
+        Optional<EndpointGroup> group = groups.computeIfAbsent(((HandlerMethod) handler).getMethod(), this::groupOf);
+        if (group.isEmpty()) {
+            return true;
+        }
+        Long userId;
+        try {
+            userId = Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return true;
+        }
+        request.setAttribute(PERMIT, rateLimiter.acquire(group.get(), userId));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object permit = request.getAttribute(PERMIT);
+        if (permit != null) {
+            request.removeAttribute(PERMIT);
+            rateLimiter.release((CallerLimit) permit);
+        }
+    }
+
+    private Optional<EndpointGroup> groupOf(Method method) {
+        RateLimited limited = AnnotatedElementUtils.findMergedAnnotation(method, RateLimited.class);
+        if (limited == null) {
+            limited = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), RateLimited.class);
+        }
+        return Optional.ofNullable(limited).map(RateLimited::value);
+    }
+}
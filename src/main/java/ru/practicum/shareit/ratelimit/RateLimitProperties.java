@@ -0,0 +1,39 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import ru.practicum.shareit.bulkhead.EndpointGroup;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    /**
+     * Limit each X-Sharer-User-Id per endpoint group; requests without the header are not limited.
+     */
+    private boolean enabled = false;
+    private Limits defaults = new Limits();
+    private Map<EndpointGroup, Limits> groups = new EnumMap<>(EndpointGroup.class);
+
+    public Limits limitsFor(EndpointGroup group) {
+        return groups.getOrDefault(group, defaults);
+    }
+
+    @Data
+    public static class Limits {
+        /**
+         * Sustained requests per second per caller.
+         */
+        private double permitsPerSecond = 20;
+        /**
+         * Requests a caller may make back to back before the sustained rate applies.
+         */
+        private int burst = 40;
+        /**
+         * Requests of one caller that may be in flight at the same time.
+         */
+        private int maxConcurrent = 4;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.ratelimit;
+
+import ru.practicum.shareit.bulkhead.EndpointGroup;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Endpoint group whose per-caller limits apply to a controller or handler method.
+ * A method-level annotation overrides the controller's.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+    EndpointGroup value();
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.bulkhead.EndpointGroup;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-caller rate and concurrency limits for each {@link EndpointGroup}. Callers that have no
+ * request in flight and a full bucket are retired and dropped by {@link #evictIdle()}; a request
+ * that still reached a retired limit looks the caller up again and gets a fresh one.
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "shareit.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimiter {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<EndpointGroup, Group> groups = new EnumMap<>(EndpointGroup.class);
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        for (EndpointGroup group : EndpointGroup.values()) {
+            groups.put(group, new Group(group, properties.limitsFor(group), meterRegistry));
+        }
+    }
+
+    /**
+     * Takes a permit for the caller or throws {@link TooManyRequestsException}.
+     * Every permit taken must be returned with {@link #release(CallerLimit)}.
+     */
+    public CallerLimit acquire(EndpointGroup group, Long userId) {
+        return groups.get(group).acquire(userId);
+    }
+
+    public void release(CallerLimit permit) {
+        permit.release();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        groups.values().forEach(group -> group.callers.forEach((userId, caller) -> {
+            if (caller.retire(now)) {
+                group.callers.remove(userId, caller);
+            }
+        }));
+    }
+
+    private static final class Group {
+        private final EndpointGroup group;
+        private final long intervalNanos;
+        private final int burst;
+        private final int maxConcurrent;
+        private final Map<Long, CallerLimit> callers = new ConcurrentHashMap<>();
+        private final Counter rejected;
+
+        private Group(EndpointGroup group, RateLimitProperties.Limits limits, MeterRegistry meterRegistry) {
+            this.group = group;
+            this.intervalNanos = Math.max(1, (long) (NANOS_PER_SECOND / limits.getPermitsPerSecond()));
+            this.burst = limits.getBurst();
+            this.maxConcurrent = limits.getMaxConcurrent();
+            this.rejected = Counter.builder("ratelimit.rejected")
+                    .tag("group", group.name())
+                    .register(meterRegistry);
+        }
+
+        private CallerLimit acquire(Long userId) {
+            long now = System.nanoTime();
+            CallerLimit caller;
+            long waitNanos;
+            do {
+                caller = callers.get(userId);
+                if (caller == null) {
+                    caller = callers.computeIfAbsent(userId, id -> new CallerLimit(intervalNanos, burst, maxConcurrent, now));
+                }
+                waitNanos = caller.tryAcquire(now);
+            } while (waitNanos == CallerLimit.RETIRED);
+            if (waitNanos > 0) {
+                rejected.increment();
+                throw new TooManyRequestsException("Too many requests from user " + userId + ": " + group,
+                        Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND));
+            }
+            return caller;
+        }
+    }
+}
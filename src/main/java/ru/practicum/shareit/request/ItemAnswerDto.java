@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Item offered by its owner in answer to a request.
+ */
+@Data
+@Builder
+public class ItemAnswerDto {
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+    private Long ownerId;
+}
@@ -1,22 +1,28 @@
 package ru.practicum.shareit.request;
 
-import lombok.Builder;
 import lombok.Data;
-import ru.practicum.shareit.user.User;
+import lombok.NoArgsConstructor;
 
+import javax.persistence.*;
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
-import javax.validation.constraints.PastOrPresent;
-import java.time.LocalDate;
-
+import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Entity
+@Table(schema = "public", name = "requests")
+@NoArgsConstructor
 public class ItemRequest {
-    @NotNull
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false, unique = true)
     private Long id;
+    @NotBlank
+    @Column(name = "description", nullable = false)
     private String description;
     @NotNull
-    private User requestors;
-    @PastOrPresent(message = "wrong created date")
-    private LocalDate created;
-}
\ No newline at end of file
+    @Column(name = "user_id", nullable = false)
+    private Long requestorId;
+    @Column(name = "create_date", nullable = false)
+    private LocalDateTime created;
+}
@@ -1,13 +1,90 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.bulkhead.Bulkheads;
+import ru.practicum.shareit.bulkhead.EndpointGroup;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.exception.ValidationExceptionUser;
+import ru.practicum.shareit.ratelimit.RateLimited;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @RestController
 @RequestMapping(path = "/requests")
+@RateLimited(EndpointGroup.REQUESTS)
 public class ItemRequestController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    ItemRequestService itemRequestService;
+    Bulkheads bulkheads;
+
+    @Autowired
+    public ItemRequestController(ItemRequestService itemRequestService, Bulkheads bulkheads) {
+        this.itemRequestService = itemRequestService;
+        this.bulkheads = bulkheads;
+    }
+
+    @PostMapping
+    public CompletableFuture<ItemRequestDto> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @Valid @RequestBody ItemRequestDto itemRequest) {
+        if (userId != null) {
+            return bulkheads.submit(EndpointGroup.REQUESTS, () -> itemRequestService.addRequest(userId, itemRequest));
+        }
+        throw new UserNotFoundException("User not found");
+    }
+
+    @GetMapping
+    public CompletableFuture<List<ItemRequestDto>> getOwn(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        if (userId != null) {
+            return bulkheads.submit(EndpointGroup.REQUESTS, () -> itemRequestService.getOwnRequests(userId));
+        }
+        throw new UserNotFoundException("User not found");
+    }
+
+    @GetMapping("/all")
+    public CompletableFuture<ResponseEntity<List<ItemRequestDto>>> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                          @RequestParam(name = "cursor", required = false) String cursor,
+                                                                          @RequestParam(name = "size", required = false) Integer size) {
+        if (userId != null) {
+            ItemRequestCursor position = ItemRequestCursor.decode(cursor);
+            int limit = pageSize(size);
+            return bulkheads.submit(EndpointGroup.REQUESTS,
+                    () -> toPage(itemRequestService.getOtherRequests(userId, position, limit), limit));
+        }
+        throw new UserNotFoundException("User not found");
+    }
+
+    @GetMapping("/{requestId}")
+    public CompletableFuture<ItemRequestDto> get(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @PathVariable Long requestId) {
+        if (userId != null) {
+            return bulkheads.submit(EndpointGroup.REQUESTS, () -> itemRequestService.getRequest(userId, requestId));
+        }
+        throw new UserNotFoundException("User not found");
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new ValidationExceptionUser("size must be 1.." + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
 
+    private ResponseEntity<List<ItemRequestDto>> toPage(List<ItemRequestDto> requests, int size) {
+        if (requests.size() == size) {
+            return ResponseEntity.ok()
+                    .header(NEXT_CURSOR_HEADER, ItemRequestCursor.of(requests.get(requests.size() - 1)).encode())
+                    .body(requests);
+        }
+        return ResponseEntity.ok(requests);
+    }
 }
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.request;
+
+import lombok.Value;
+import ru.practicum.shareit.exception.ValidationExceptionUser;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the request feed ordered by (create_date DESC, id DESC).
+ * Clients only see it as an opaque token returned in the X-Next-Cursor header.
+ */
+@Value
+public class ItemRequestCursor {
+    public static final ItemRequestCursor FIRST = new ItemRequestCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime created;
+    Long id;
+
+    public static ItemRequestCursor of(ItemRequestDto request) {
+        return new ItemRequestCursor(request.getCreated(), request.getId());
+    }
+
+    public static ItemRequestCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = value.lastIndexOf(SEPARATOR);
+            return new ItemRequestCursor(LocalDateTime.parse(value.substring(0, index)),
+                    Long.parseLong(value.substring(index + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationExceptionUser("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String value = created + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemRequestDto {
+    private Long id;
+    @NotBlank(message = "description cannot be empty")
+    private String description;
+    private LocalDateTime created;
+    private List<ItemAnswerDto> items;
+}
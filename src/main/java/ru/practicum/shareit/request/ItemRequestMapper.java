@@ -0,0 +1,35 @@
+package ru.practicum.shareit.request;
+
+import ru.practicum.shareit.item.Item;
+
+import java.util.List;
+
+public class ItemRequestMapper {
+
+    public static ItemRequest toItemRequest(ItemRequestDto itemRequestDto, Long requestorId) {
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setDescription(itemRequestDto.getDescription());
+        itemRequest.setRequestorId(requestorId);
+        return itemRequest;
+    }
+
+    public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, List<ItemAnswerDto> items) {
+        return ItemRequestDto.builder()
+                .id(itemRequest.getId())
+                .description(itemRequest.getDescription())
+                .created(itemRequest.getCreated())
+                .items(items)
+                .build();
+    }
+
+    public static ItemAnswerDto toItemAnswerDto(Item item) {
+        return ItemAnswerDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .ownerId(item.getUserId())
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ItemRequestService {
+
+    @Transactional
+    ItemRequestDto addRequest(Long userId, ItemRequestDto itemRequestDto);
+
+    @Transactional(readOnly = true)
+    List<ItemRequestDto> getOwnRequests(Long userId);
+
+    @Transactional(readOnly = true)
+    List<ItemRequestDto> getOtherRequests(Long userId, ItemRequestCursor cursor, int size);
+
+    @Transactional(readOnly = true)
+    ItemRequestDto getRequest(Long userId, Long requestId);
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.cache.NearCache;
+import ru.practicum.shareit.exception.ItemRequestNotFoundException;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final NearCache<Long, UserSnapshot> userCache;
+
+    @Override
+    public ItemRequestDto addRequest(Long userId, ItemRequestDto itemRequestDto) {
+        UserSnapshot user = findUser(userId);
+        ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, user.getId());
+        itemRequest.setCreated(LocalDateTime.now());
+        ItemRequest saved = itemRequestRepository.save(itemRequest);
+        log.info("add item request {}", saved);
+        return ItemRequestMapper.toItemRequestDto(saved, new ArrayList<>());
+    }
+
+    @Override
+    public List<ItemRequestDto> getOwnRequests(Long userId) {
+        findUser(userId);
+        return withAnswers(itemRequestRepository.findByRequestorIdOrderByCreatedDescIdDesc(userId));
+    }
+
+    @Override
+    public List<ItemRequestDto> getOtherRequests(Long userId, ItemRequestCursor cursor, int size) {
+        findUser(userId);
+        return withAnswers(itemRequestRepository.findFeedPage(userId, cursor.getCreated(), cursor.getId(),
+                PageRequest.of(0, size)));
+    }
+
+    @Override
+    public ItemRequestDto getRequest(Long userId, Long requestId) {
+        findUser(userId);
+        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new ItemRequestNotFoundException("Request not found"));
+        return withAnswers(List.of(itemRequest)).get(0);
+    }
+
+    /**
+     * Loads the answers of all requests on the page with one IN query.
+     */
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId,
+                        Collectors.mapping(ItemRequestMapper::toItemAnswerDto, Collectors.toList())));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(request,
+                        answers.getOrDefault(request.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    private UserSnapshot findUser(Long userId) {
+        return userCache.get(userId, id -> userRepository.findById(id).map(UserMapper::toUserSnapshot))
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Writes rows to the response one JSON document per line as they are read,
+ * so a streamed list never has to be held in memory.
+ */
+@Component
+public class NdjsonWriter {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String FETCH_SIZE = "500";
+
+    private final ObjectWriter writer;
+
+    public NdjsonWriter(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * The content type is set on the first row. An exception thrown before that switches the
+     * response to JSON, so ErrorHandler renders it as a normal JSON error even though the
+     * client asked for NDJSON.
+     */
+    public <T> void stream(HttpServletResponse response, Consumer<Consumer<T>> producer) {
+        try {
+            producer.accept(sink(response));
+        } catch (RuntimeException e) {
+            if (!response.isCommitted() && response.getContentType() == null) {
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            }
+            throw e;
+        }
+        prepare(response);
+    }
+
+    private <T> Consumer<T> sink(HttpServletResponse response) {
+        return row -> {
+            try {
+                prepare(response);
+                OutputStream out = response.getOutputStream();
+                writer.writeValue(out, row);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static void prepare(HttpServletResponse response) {
+        if (!response.isCommitted() && response.getContentType() == null) {
+            response.setContentType(APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+    }
+}
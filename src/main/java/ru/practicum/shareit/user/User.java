@@ -13,7 +13,8 @@ import javax.validation.constraints.NotBlank;
 @NoArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false, updatable = false, unique = true)
     private Long id;
     @Email(message = "Email should be valid")
@@ -23,4 +24,7 @@ public class User {
     @NotBlank(message = "name cannot be empty")
     @Column(name = "name", nullable = false)
     private String name;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
\ No newline at end of file
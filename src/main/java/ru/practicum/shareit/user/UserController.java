@@ -1,46 +1,78 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.bulkhead.Bulkheads;
+import ru.practicum.shareit.bulkhead.EndpointGroup;
+import ru.practicum.shareit.etag.ETags;
+import ru.practicum.shareit.ratelimit.RateLimited;
+import ru.practicum.shareit.stream.NdjsonWriter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 @RestController
 @RequestMapping(path = "/users")
+@RateLimited(EndpointGroup.USERS)
 public class UserController {
 
     UserService userService;
+    NdjsonWriter ndjsonWriter;
+    Bulkheads bulkheads;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, NdjsonWriter ndjsonWriter, Bulkheads bulkheads) {
         this.userService = userService;
+        this.ndjsonWriter = ndjsonWriter;
+        this.bulkheads = bulkheads;
     }
 
     @GetMapping("/{id}")
-    public UserDto get(@PathVariable Long id) {
-        return userService.getUser(id);
+    public CompletableFuture<ResponseEntity<UserDto>> get(@PathVariable Long id,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return bulkheads.submit(EndpointGroup.USERS, () -> {
+            String etag = userService.getUserTag(id);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+            return ETags.ok(etag, userService.getUser(id));
+        });
     }
 
     @PostMapping
-    public UserDto create(@Valid @RequestBody UserDto user) {
-        return userService.saveUser(user);
+    public CompletableFuture<UserDto> create(@Valid @RequestBody UserDto user) {
+        return bulkheads.submit(EndpointGroup.USERS, () -> userService.saveUser(user));
+    }
+
+    @PostMapping("/batch")
+    public CompletableFuture<BatchResult<UserDto>> createAll(@RequestBody List<UserDto> users) {
+        return bulkheads.submit(EndpointGroup.USERS, () -> userService.saveUsers(users));
     }
 
     @PatchMapping("/{id}")
-    public UserDto update(@PathVariable Long id, @Valid @RequestBody UserDto user) {
-        return userService.updateUser(id, user);
+    public CompletableFuture<UserDto> update(@PathVariable Long id, @Valid @RequestBody UserDto user) {
+        return bulkheads.submit(EndpointGroup.USERS, () -> userService.updateUser(id, user));
     }
 
     @GetMapping
-    public List<UserDto> getAll() {
-        return userService.getAllUsers();
+    public CompletableFuture<List<UserDto>> getAll() {
+        return bulkheads.submit(EndpointGroup.USERS, userService::getAllUsers);
+    }
+
+    @GetMapping(produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public void streamAll(HttpServletResponse response) {
+        ndjsonWriter.stream(response, userService::streamAllUsers);
     }
 
     @DeleteMapping("/{id}")
-    public void deleteFriend(@PathVariable Long id) {
-        userService.deleteUser(id);
+    public CompletableFuture<Void> deleteFriend(@PathVariable Long id) {
+        return bulkheads.run(EndpointGroup.USERS, () -> userService.deleteUser(id));
     }
 
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user;
 
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -9,6 +10,7 @@ import javax.validation.constraints.Email;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class UserDto {
     private Long id;
     @Email(message = "Email should be valid")
@@ -13,6 +13,18 @@ public class UserMapper {
                 .build();
     }
 
+    public static UserDto toUserDto(UserSnapshot user) {
+        return UserDto.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+
+    public static UserSnapshot toUserSnapshot(User user) {
+        return new UserSnapshot(user.getId(), user.getName(), user.getEmail(), user.getVersion());
+    }
+
     public static User toUser(UserDto userDto) {
         User user = new User();
         if (userDto.getName() != null && userDto.getEmail() != null) {
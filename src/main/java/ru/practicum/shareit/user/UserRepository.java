@@ -1,8 +1,25 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.stream.NdjsonWriter;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     void deleteById(Long itemId);
-}
\ No newline at end of file
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = NdjsonWriter.FETCH_SIZE))
+    @Query("select new ru.practicum.shareit.user.UserDto(u.id, u.email, u.name) from User u order by u.id")
+    Stream<UserDto> streamAll();
+
+    @Query("select u.email from User u where u.email in ?1")
+    List<String> findEmailsByEmailIn(Collection<String> emails);
+}
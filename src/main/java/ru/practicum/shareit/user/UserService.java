@@ -1,17 +1,26 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.batch.BatchResult;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     public UserDto getUser(Long id);
 
+    String getUserTag(Long id);
+
     @Transactional(readOnly = true)
     List<UserDto> getAllUsers();
 
+    @Transactional(readOnly = true)
+    void streamAllUsers(Consumer<UserDto> sink);
+
     public UserDto saveUser(UserDto user);
 
+    BatchResult<UserDto> saveUsers(List<UserDto> users);
+
     public UserDto updateUser(Long id, UserDto userDto);
 
     public void deleteUser(Long id);
@@ -3,15 +3,31 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.batch.BatchRow;
+import ru.practicum.shareit.batch.BatchWriter;
+import ru.practicum.shareit.cache.NearCache;
+import ru.practicum.shareit.etag.ETags;
+import ru.practicum.shareit.exception.EmailErrorAlreadyExists;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.exception.ValidationExceptionUser;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final NearCache<Long, UserSnapshot> userCache;
+    private final BatchWriter batchWriter;
 
     @Override
     @Transactional(readOnly = true)
@@ -20,6 +36,14 @@ class UserServiceImpl implements UserService {
         return users.stream().map(UserMapper::toUserDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserDto> sink) {
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            users.forEach(sink);
+        }
+    }
+
     @Override
     @Transactional
     public UserDto saveUser(UserDto userDto) {
@@ -28,6 +52,30 @@ class UserServiceImpl implements UserService {
     }
 
     @Override
+    public BatchResult<UserDto> saveUsers(List<UserDto> users) {
+        BatchResult<UserDto> result = new BatchResult<>();
+        Set<String> emails = users.stream().map(UserDto::getEmail).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<String> taken = batchWriter.lookup(emails, userRepository::findEmailsByEmailIn);
+        Set<String> seen = new HashSet<>();
+        List<BatchRow<User>> rows = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            try {
+                User user = UserMapper.toUser(users.get(i));
+                batchWriter.validate(user);
+                if (taken.contains(user.getEmail()) || !seen.add(user.getEmail())) {
+                    throw new EmailErrorAlreadyExists("Email already exists: " + user.getEmail());
+                }
+                rows.add(new BatchRow<>(i, user));
+            } catch (ValidationExceptionUser | EmailErrorAlreadyExists e) {
+                result.reject(i, e.getMessage());
+            }
+        }
+        batchWriter.persist(rows, user -> { }, UserMapper::toUserDto, result);
+        return result;
+    }
+
+    @Override
+    @Transactional
     public UserDto updateUser(Long id, UserDto userDto) {
         User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("User not found"));
         if (id.equals(user.getId())) {
@@ -37,7 +85,9 @@ class UserServiceImpl implements UserService {
             if (userDto.getName() != null) {
                 user.setName(userDto.getName());
             }
-            return UserMapper.toUserDto(userRepository.save(user));
+            User saved = userRepository.saveAndFlush(user);
+            userCache.invalidate(id);
+            return UserMapper.toUserDto(saved);
         }
         throw new RuntimeException("the user does not match");
     }
@@ -45,13 +95,26 @@ class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public UserDto getUser(Long id) {
-        return UserMapper.toUserDto(userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("User not found")));
+        return UserMapper.toUserDto(findUser(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found")));
+    }
+
+    @Override
+    public String getUserTag(Long id) {
+        return findUser(id)
+                .map(user -> ETags.of("u", user.getId(), user.getVersion()))
+                .orElse(null);
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         getUser(id);
         userRepository.deleteById(id);
+        userCache.invalidate(id);
     }
 
+    private Optional<UserSnapshot> findUser(Long id) {
+        return userCache.get(id, key -> userRepository.findById(key).map(UserMapper::toUserSnapshot));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+
+/**
+ * Immutable copy of a user kept in the user cache. Associations that need the user
+ * take a reference by id instead.
+ */
+@Value
+public class UserSnapshot {
+    Long id;
+    String name;
+    String email;
+    Long version;
+}
@@ -0,0 +1,11 @@
+-- Runs after schema.sql. Tables created before the id sequences still generate their own ids;
+-- hand id generation over to the sequences, starting each one above the rows already there.
+-- The sequences are pooled by 50, so each value ends a block, and RESTART never moves one backwards.
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER SEQUENCE users_id_seq RESTART WITH (SELECT GREATEST(COALESCE((SELECT MAX(id) FROM users), 0) + 50,
+    (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'USERS_ID_SEQ')));
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER SEQUENCE items_id_seq RESTART WITH (SELECT GREATEST(COALESCE((SELECT MAX(id) FROM items), 0) + 50,
+    (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'ITEMS_ID_SEQ')));
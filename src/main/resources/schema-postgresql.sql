@@ -0,0 +1,13 @@
+-- Runs after schema.sql. Tables created before the id sequences still generate their own ids;
+-- dropping the identity also drops its users_id_seq / items_id_seq, which is then recreated
+-- pooled by 50 and moved past the rows already there. setval only ever moves a sequence forward.
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS users_id_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('users_id_seq', m.max_id) FROM (SELECT MAX(id) AS max_id FROM users) m, users_id_seq s
+WHERE m.max_id >= s.last_value;
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS items_id_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('items_id_seq', m.max_id) FROM (SELECT MAX(id) AS max_id FROM items) m, items_id_seq s
+WHERE m.max_id >= s.last_value;
@@ -1,9 +1,13 @@
 
 
+CREATE SEQUENCE IF NOT EXISTS users_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+id BIGINT PRIMARY KEY,
 email varchar(320),
 name varchar(100),
+version BIGINT DEFAULT 0 NOT NULL,
 CONSTRAINT AK_email UNIQUE(email)
 );
 
@@ -15,11 +19,13 @@ create_date timestamp
 );
 
 CREATE TABLE IF NOT EXISTS items (
-id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+id BIGINT PRIMARY KEY,
 name varchar(100),
 description varchar(300),
 available bool default false,
 user_id BIGINT REFERENCES users(id),
+request_id BIGINT REFERENCES requests(id),
+version BIGINT DEFAULT 0 NOT NULL,
 CONSTRAINT AK_id UNIQUE(id, user_id)
 );
 CREATE TABLE IF NOT EXISTS booking (
@@ -29,6 +35,7 @@ end_time timestamp WITHOUT time zone,
 item_id BIGINT REFERENCES items(id),
 user_id BIGINT REFERENCES users(id),
 status varchar(100),
+version BIGINT DEFAULT 0 NOT NULL,
 CONSTRAINT AK_booking UNIQUE(id, item_id)
 );
 
@@ -39,4 +46,52 @@ author_name varchar(50),
 item_id BIGINT REFERENCES items(id),
 user_id BIGINT REFERENCES users(id),
 created timestamp WITHOUT time zone
-);
\ No newline at end of file
+);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS request_id BIGINT REFERENCES requests(id);
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+item_id BIGINT PRIMARY KEY REFERENCES items(id) ON DELETE CASCADE,
+last_booking_id BIGINT,
+last_booker_id BIGINT,
+last_start TIMESTAMP WITHOUT TIME ZONE,
+next_booking_id BIGINT,
+next_booker_id BIGINT,
+next_start TIMESTAMP WITHOUT TIME ZONE,
+version BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox (
+id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+aggregate_type varchar(50) NOT NULL,
+aggregate_id BIGINT NOT NULL,
+event_type varchar(50) NOT NULL,
+payload varchar(4000) NOT NULL,
+created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS booking_user_start_idx ON booking (user_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS booking_item_start_idx ON booking (item_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS booking_item_end_idx ON booking (item_id, end_time);
+CREATE INDEX IF NOT EXISTS booking_booker_item_end_idx ON booking (user_id, item_id, end_time);
+CREATE INDEX IF NOT EXISTS requests_feed_idx ON requests (create_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS requests_user_idx ON requests (user_id, create_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id, id);
+CREATE INDEX IF NOT EXISTS item_booking_summary_next_idx ON item_booking_summary (next_start);
+
+INSERT INTO item_booking_summary (item_id, last_booking_id, last_booker_id, last_start,
+next_booking_id, next_booker_id, next_start)
+SELECT i.id, l.id, l.user_id, l.start_time, n.id, n.user_id, n.start_time
+FROM items i
+LEFT JOIN booking l ON l.id = (SELECT b.id FROM booking b
+WHERE b.item_id = i.id AND b.start_time < LOCALTIMESTAMP AND b.status <> 'REJECTED'
+ORDER BY b.start_time DESC, b.id DESC LIMIT 1)
+LEFT JOIN booking n ON n.id = (SELECT b.id FROM booking b
+WHERE b.item_id = i.id AND b.start_time > LOCALTIMESTAMP AND b.status <> 'REJECTED'
+ORDER BY b.start_time, b.id LIMIT 1)
+WHERE NOT EXISTS (SELECT 1 FROM item_booking_summary s WHERE s.item_id = i.id)
+AND EXISTS (SELECT 1 FROM booking b WHERE b.item_id = i.id);
@@ -0,0 +1,33 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+/**
+ * Unsaved users and items for tests that share one database: e-mails get a unique suffix, so
+ * users created by different tests or runs never collide on the e-mail constraint.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + System.nanoTime() + "@example.com");
+        return user;
+    }
+
+    /**
+     * An available item; {@code ownerId} may be null for items that are never saved.
+     */
+    public static Item item(String name, String description, Long ownerId) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        item.setUserId(ownerId);
+        return item;
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.batch;
+
+import com.jayway.jsonpath.JsonPath;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.AsyncMvc;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemImportDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class BatchImportTest {
+    private static final int ITEMS = 2500;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private BatchWriter batchWriter;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void reportsRowErrorsAndKeepsValidRows() {
+        String email = "partner" + System.nanoTime() + "@example.com";
+        BatchResult<UserDto> users = userService.saveUsers(List.of(
+                new UserDto(null, email, "partner"),
+                new UserDto(null, "not an email", "broken"),
+                new UserDto(null, email, "duplicate")));
+
+        assertThat(users.getCreated()).extracting(UserDto::getEmail).containsExactly(email);
+        assertThat(users.getErrors()).extracting(BatchResult.RowError::getRow).containsExactly(1, 2);
+    }
+
+    /**
+     * The taken e-mail gets past validation (as it would if another request committed it in
+     * between), so the database rejects the chunk and it is retried row by row.
+     */
+    @Test
+    void databaseRejectionKeepsTheOtherRowsOfTheChunk() {
+        String taken = userService.saveUser(new UserDto(null, "taken" + System.nanoTime() + "@example.com", "taken"))
+                .getEmail();
+        List<BatchRow<User>> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String email = i == 1 ? taken : "row" + i + "-" + System.nanoTime() + "@example.com";
+            rows.add(new BatchRow<>(i, UserMapper.toUser(new UserDto(null, email, "row " + i))));
+        }
+        BatchResult<UserDto> result = new BatchResult<>();
+
+        batchWriter.persist(rows, user -> { }, UserMapper::toUserDto, result);
+
+        assertThat(result.getCreated()).extracting(UserDto::getName).containsExactly("row 0", "row 2");
+        assertThat(result.getCreated()).extracting(UserDto::getId).doesNotContainNull();
+        assertThat(result.getErrors()).extracting(BatchResult.RowError::getRow).containsExactly(1);
+        assertThat(result.getCreated()).allSatisfy(user -> assertThat(userService.getUser(user.getId()).getEmail())
+                .isEqualTo(user.getEmail()));
+    }
+
+    @Test
+    void insertsItemsInJdbcBatches() {
+        Long ownerId = userService.saveUser(new UserDto(null, "owner" + System.nanoTime() + "@example.com", "owner")).getId();
+        List<ItemImportDto> rows = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            rows.add(new ItemImportDto("Item " + i, "Imported item", true));
+        }
+        rows.add(new ItemImportDto(" ", "Blank name", true));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BatchResult<ItemDto> items = itemService.addItems(ownerId, rows);
+
+        assertThat(items.getCreated()).hasSize(ITEMS);
+        assertThat(items.getErrors()).extracting(BatchResult.RowError::getRow).containsExactly(ITEMS);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ITEMS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(ITEMS / 10);
+    }
+
+    @Test
+    void itemsAreOwnedByTheCallerOnly() throws Exception {
+        Long caller = userService.saveUser(new UserDto(null, "caller" + System.nanoTime() + "@example.com", "caller")).getId();
+        Long other = userService.saveUser(new UserDto(null, "other" + System.nanoTime() + "@example.com", "other")).getId();
+        String body = "[{\"ownerId\": " + other + ", \"name\": \"Tent\", \"description\": \"Two-person tent\", " +
+                "\"available\": true}]";
+
+        mvc.perform(post("/items/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+        AsyncMvc.perform(mvc, post("/items/batch").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header("X-Sharer-User-Id", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+        String created = AsyncMvc.perform(mvc, post("/items/batch").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header("X-Sharer-User-Id", caller))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created.length()").value(1))
+                .andReturn().getResponse().getContentAsString();
+
+        Long itemId = JsonPath.parse(created).read("$.created[0].id", Long.class);
+        assertThat(itemRepository.findById(itemId)).hasValueSatisfying(item ->
+                assertThat(item.getUserId()).isEqualTo(caller));
+    }
+}
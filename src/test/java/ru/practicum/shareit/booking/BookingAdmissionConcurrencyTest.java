@@ -0,0 +1,185 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.TheItemHasAlreadyBeenBooked;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static ru.practicum.shareit.TestFixtures.item;
+import static ru.practicum.shareit.TestFixtures.user;
+
+/**
+ * Admissions against the database: each commits in its own transaction, like concurrent requests
+ * do, and the rows are removed after each test.
+ */
+@SpringBootTest
+class BookingAdmissionConcurrencyTest {
+    private static final int ITEMS = 16;
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private BookingAdmission admission;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private User booker;
+    private List<Item> items;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("owner"));
+        booker = userRepository.save(user("booker"));
+        items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(item("Ladder " + i, "Folding ladder", owner.getId())));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Item item : items) {
+            jdbcTemplate.update("delete from booking where item_id = ?", item.getId());
+            itemRepository.deleteById(item.getId());
+        }
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void rejectsOverlapAndAcceptsAdjacentWindows() {
+        admit(items.get(0), 0, 4);
+        admit(items.get(0), 4, 6);
+
+        assertThatThrownBy(() -> admit(items.get(0), 3, 5)).isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+        assertThatThrownBy(() -> admit(items.get(0), -1, 1)).isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+        admit(items.get(1), 3, 5);
+    }
+
+    @Test
+    void seesBookingsWrittenOutsideThisInstance() {
+        admit(items.get(0), 10, 12);
+        insert(items.get(0), 0, 4, Status.APPROVED);
+        insert(items.get(1), 0, 4, Status.REJECTED);
+
+        assertThatThrownBy(() -> admit(items.get(0), 1, 3)).isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+        assertThatThrownBy(() -> admit(items.get(0), 2, 3)).isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+        assertThat(admit(items.get(1), 1, 3).getId()).isNotNull();
+    }
+
+    @Test
+    void admitsOnlyOneOfConcurrentOverlappingRequests() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Boolean>> sameItem = new ArrayList<>();
+            for (int i = 0; i < threads * 4; i++) {
+                sameItem.add(() -> {
+                    try {
+                        admit(items.get(0), 0, 2);
+                        return true;
+                    } catch (TheItemHasAlreadyBeenBooked e) {
+                        return false;
+                    }
+                });
+            }
+            assertThat(countAdmitted(executor.invokeAll(sameItem))).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void admitsOneBookingPerItemWhenManyItemsAreBookedConcurrently() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < ITEMS * 4; i++) {
+                Item item = items.get(i % ITEMS);
+                attempts.add(() -> {
+                    try {
+                        admit(item, 0, 2);
+                        return true;
+                    } catch (TheItemHasAlreadyBeenBooked e) {
+                        return false;
+                    }
+                });
+            }
+            assertThat(countAdmitted(executor.invokeAll(attempts))).isEqualTo(ITEMS);
+            for (Item item : items) {
+                assertThat(jdbcTemplate.queryForObject("select count(*) from booking where item_id = ?",
+                        Long.class, item.getId())).isEqualTo(1L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Booking admit(Item item, int fromHours, int toHours) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Booking booking = new Booking();
+            booking.setItem(itemRepository.getReferenceById(item.getId()));
+            booking.setBooker(userRepository.getReferenceById(booker.getId()));
+            booking.setStart(START.plusHours(fromHours));
+            booking.setEnd(START.plusHours(toHours));
+            booking.setStatus(Status.WAITING);
+            return admission.admit(booking, bookingRepository::save);
+        });
+    }
+
+    private void insert(Item item, int fromHours, int toHours, Status status) {
+        new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("booking")
+                .withoutTableColumnMetaDataAccess()
+                .usingColumns("start_time", "end_time", "item_id", "user_id", "status")
+                .usingGeneratedKeyColumns("id")
+                .execute(Map.of(
+                        "start_time", Timestamp.valueOf(START.plusHours(fromHours)),
+                        "end_time", Timestamp.valueOf(START.plusHours(toHours)),
+                        "item_id", item.getId(),
+                        "user_id", booker.getId(),
+                        "status", status.name()));
+    }
+
+    private static long countAdmitted(List<Future<Boolean>> results) throws Exception {
+        long admitted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.TheItemHasAlreadyBeenBooked;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The in-memory side of admission, with the database mocked. Same-item races are settled by the
+ * item row lock and covered by {@link BookingAdmissionConcurrencyTest}.
+ */
+class BookingAdmissionTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+
+    private final AtomicLong ids = new AtomicLong();
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private BookingAdmission admission;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findByItemIdAndEndAfterAndStatusIn(anyLong(), any(), any())).thenReturn(List.of());
+        admission = new BookingAdmission(itemRepository, bookingRepository, Duration.ofMinutes(10),
+                Duration.ofMinutes(10));
+    }
+
+    @Test
+    void overlapIsRejectedFromMemoryWithoutLockingTheItem() {
+        admission.admit(booking(1L, 0, 4), this::save);
+        admission.admit(booking(1L, 4, 6), this::save);
+
+        assertThatThrownBy(() -> admission.admit(booking(1L, 3, 5), this::save))
+                .isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+        assertThatThrownBy(() -> admission.admit(booking(1L, -1, 1), this::save))
+                .isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+        admission.admit(booking(2L, 3, 5), this::save);
+
+        verify(itemRepository, times(2)).lockById(1L);
+        verify(bookingRepository, times(1)).findByItemIdAndEndAfterAndStatusIn(eq(1L), any(), any());
+    }
+
+    @Test
+    void databaseOverlapIsRejectedAndTheItemReloaded() {
+        when(bookingRepository.existsByItemIdAndStatusInAndEndAfterAndStartBefore(eq(1L), any(), any(), any()))
+                .thenReturn(true);
+
+        assertThatThrownBy(() -> admission.admit(booking(1L, 0, 2), this::save))
+                .isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+        assertThatThrownBy(() -> admission.admit(booking(1L, 0, 2), this::save))
+                .isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+
+        verify(bookingRepository, times(2)).findByItemIdAndEndAfterAndStatusIn(eq(1L), any(), any());
+    }
+
+    @Test
+    void releasedWindowCanBeBookedAgain() {
+        Booking first = admission.admit(booking(1L, 0, 4), this::save);
+        admission.release(1L, first.getId());
+
+        assertThat(admission.admit(booking(1L, 1, 3), this::save).getId()).isNotNull();
+    }
+
+    @Test
+    void rollbackFreesTheWindow() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            admission.admit(booking(1L, 0, 4), this::save);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(admission.admit(booking(1L, 1, 3), this::save).getId()).isNotNull();
+    }
+
+    @Test
+    void idleAndOldItemsAreReloaded() {
+        admission = new BookingAdmission(itemRepository, bookingRepository, Duration.ZERO, Duration.ofMinutes(10));
+        admission.admit(booking(1L, 0, 2), this::save);
+        admission.admit(booking(1L, 2, 4), this::save);
+        verify(bookingRepository, times(1)).findByItemIdAndEndAfterAndStatusIn(eq(1L), any(), any());
+
+        admission.evictIdle();
+        admission.admit(booking(1L, 4, 6), this::save);
+        verify(bookingRepository, times(2)).findByItemIdAndEndAfterAndStatusIn(eq(1L), any(), any());
+
+    }
+
+    @Test
+    void oldIntervalsAreReloadedBeforeTheyReject() {
+        admission = new BookingAdmission(itemRepository, bookingRepository, Duration.ofMinutes(10), Duration.ZERO);
+        admission.admit(booking(1L, 0, 2), this::save);
+
+        assertThat(admission.admit(booking(1L, 0, 2), this::save).getId()).isNotNull();
+    }
+
+    @Test
+    void slowWriteOnOneItemDoesNotHoldUpOtherItems() throws Exception {
+        CountDownLatch othersAdmitted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Booking> slow = executor.submit(() -> admission.admit(booking(1L, 0, 2), booking -> {
+                try {
+                    assertThat(othersAdmitted.await(5, TimeUnit.SECONDS)).isTrue();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return save(booking);
+            }));
+            for (long itemId = 2; itemId <= 64; itemId++) {
+                admission.admit(booking(itemId, 0, 2), this::save);
+            }
+            admission.admit(booking(1L + BookingAdmission.STRIPES, 0, 2), this::save);
+            othersAdmitted.countDown();
+
+            assertThat(slow.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Booking save(Booking booking) {
+        booking.setId(ids.incrementAndGet());
+        return booking;
+    }
+
+    private static Booking booking(Long itemId, int fromHours, int toHours) {
+        Item item = new Item();
+        item.setId(itemId);
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setStart(START.plusHours(fromHours));
+        booking.setEnd(START.plusHours(toHours));
+        booking.setStatus(Status.WAITING);
+        return booking;
+    }
+}
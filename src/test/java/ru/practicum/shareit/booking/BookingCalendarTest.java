@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingCalendarTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(10);
+
+    @Test
+    void mergesOverlappingBookingsAndClipsToRange() {
+        List<BookingInterval> bookings = List.of(
+                interval(-2, 1),
+                interval(3, 5),
+                interval(4, 6),
+                interval(6, 7),
+                interval(9, 12));
+
+        assertThat(BookingCalendar.sweep(bookings, FROM, TO)).containsExactly(
+                new TimeWindow(day(1), day(3)),
+                new TimeWindow(day(7), day(9)));
+    }
+
+    @Test
+    void wholeRangeIsFreeWithoutBookings() {
+        assertThat(BookingCalendar.sweep(List.of(), FROM, TO)).containsExactly(new TimeWindow(FROM, TO));
+    }
+
+    @Test
+    void containedBookingDoesNotMoveCursorBack() {
+        List<BookingInterval> bookings = List.of(interval(1, 8), interval(2, 3));
+
+        assertThat(BookingCalendar.sweep(bookings, FROM, TO)).containsExactly(
+                new TimeWindow(day(0), day(1)),
+                new TimeWindow(day(8), day(10)));
+    }
+
+    private static LocalDateTime day(int day) {
+        return FROM.plusDays(day);
+    }
+
+    private static BookingInterval interval(int startDay, int endDay) {
+        return new BookingInterval() {
+            @Override
+            public Long getItemId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return day(startDay);
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return day(endDay);
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationExceptionUser;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingCursorTest {
+
+    @Test
+    void tokenRoundTrips() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2026, 5, 1, 10, 30, 15, 123_000_000), 42L);
+
+        assertThat(BookingCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void missingTokenStartsFromTheTop() {
+        assertThat(BookingCursor.decode(null)).isEqualTo(BookingCursor.FIRST);
+        assertThat(BookingCursor.decode(" ")).isEqualTo(BookingCursor.FIRST);
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThatThrownBy(() -> BookingCursor.decode("not a cursor"))
+                .isInstanceOf(ValidationExceptionUser.class);
+        String noDate = Base64.getUrlEncoder().encodeToString("yesterday|1".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> BookingCursor.decode(noDate))
+                .isInstanceOf(ValidationExceptionUser.class);
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.TheItemHasAlreadyBeenBooked;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static ru.practicum.shareit.TestFixtures.item;
+import static ru.practicum.shareit.TestFixtures.user;
+
+/**
+ * Bookings and comments written through the services, with the item taken from the near-cache.
+ */
+@SpringBootTest
+@Transactional
+class BookingLifecycleTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("owner"));
+        booker = userRepository.save(user("booker"));
+        item = itemRepository.save(item("Ladder", "Aluminium ladder", owner.getId()));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void bookingIsPersistedAndCommentedAfterItEnds() {
+        itemService.getItem(item.getId(), booker.getId());
+
+        BookingResponseDto created = bookingService.createBooking(request(1, 2), booker.getId());
+        entityManager.flush();
+
+        assertThat(created.getItem().getName()).isEqualTo("Ladder");
+        assertThat(bookingRepository.findById(created.getId()))
+                .hasValueSatisfying(booking -> assertThat(booking.getStatus()).isEqualTo(Status.WAITING));
+
+        bookingService.confirmTheBooking(owner.getId(), created.getId(), true);
+        entityManager.createQuery("update Booking b set b.start = :start, b.end = :end where b.id = :id")
+                .setParameter("start", LocalDateTime.now().minusDays(2))
+                .setParameter("end", LocalDateTime.now().minusDays(1))
+                .setParameter("id", created.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        Comment comment = new Comment();
+        comment.setText("Sturdy enough");
+        Comment saved = itemService.addComment(booker.getId(), item.getId(), comment);
+        entityManager.flush();
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(commentRepository.findByItemId(item.getId()))
+                .extracting(Comment::getText)
+                .containsExactly("Sturdy enough");
+    }
+
+    @Test
+    void rejectedBookingCannotBeApprovedOnceItsSlotIsTaken() {
+        User other = userRepository.save(user("other"));
+        BookingResponseDto rejected = bookingService.createBooking(request(1, 3), booker.getId());
+        bookingService.confirmTheBooking(owner.getId(), rejected.getId(), false);
+        BookingResponseDto taken = bookingService.createBooking(request(2, 4), other.getId());
+        entityManager.flush();
+
+        assertThatThrownBy(() -> bookingService.confirmTheBooking(owner.getId(), rejected.getId(), true))
+                .isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+        assertThat(bookingRepository.findById(rejected.getId()))
+                .hasValueSatisfying(booking -> assertThat(booking.getStatus()).isEqualTo(Status.REJECTED));
+        assertThat(bookingRepository.findById(taken.getId()))
+                .hasValueSatisfying(booking -> assertThat(booking.getStatus()).isEqualTo(Status.WAITING));
+    }
+
+    @Test
+    void approvedBookingCanStillBeRejectedAndGivesItsSlotBack() {
+        User other = userRepository.save(user("other"));
+        BookingResponseDto approved = bookingService.createBooking(request(1, 3), booker.getId());
+        bookingService.confirmTheBooking(owner.getId(), approved.getId(), true);
+
+        assertThatThrownBy(() -> bookingService.confirmTheBooking(owner.getId(), approved.getId(), true))
+                .isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+        assertThat(bookingService.confirmTheBooking(owner.getId(), approved.getId(), false).getStatus())
+                .isEqualTo(Status.REJECTED);
+        assertThatThrownBy(() -> bookingService.confirmTheBooking(owner.getId(), approved.getId(), false))
+                .isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+
+        assertThat(bookingService.createBooking(request(2, 4), other.getId()).getId()).isNotNull();
+    }
+
+    /**
+     * The approval never goes through this service, as if another instance or a migration wrote it.
+     */
+    @Test
+    void bookingApprovedElsewhereAllowsComment() {
+        insertPastBooking(item.getId(), Status.APPROVED);
+
+        Comment comment = new Comment();
+        comment.setText("Worked fine");
+        Comment saved = itemService.addComment(booker.getId(), item.getId(), comment);
+
+        assertThat(saved.getId()).isNotNull();
+    }
+
+    /**
+     * Only an approved booking of this very item counts; any past booking of the owner's items used to.
+     */
+    @Test
+    void commentNeedsAnApprovedPastBookingOfTheItem() {
+        Item other = itemRepository.save(item("Drill", "Cordless drill", owner.getId()));
+        entityManager.flush();
+        insertPastBooking(item.getId(), Status.WAITING);
+        insertPastBooking(item.getId(), Status.REJECTED);
+        insertPastBooking(other.getId(), Status.APPROVED);
+
+        Comment comment = new Comment();
+        comment.setText("Never had it");
+        assertThatThrownBy(() -> itemService.addComment(booker.getId(), item.getId(), comment))
+                .isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+        assertThat(commentRepository.findByItemId(item.getId())).isEmpty();
+    }
+
+    private void insertPastBooking(Long itemId, Status status) {
+        jdbcTemplate.update("insert into booking (start_time, end_time, item_id, user_id, status) values (?, ?, ?, ?, ?)",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(2)), Timestamp.valueOf(LocalDateTime.now().minusDays(1)),
+                itemId, booker.getId(), status.name());
+    }
+
+    private BookingDto request(int startDays, int endDays) {
+        BookingDto request = new BookingDto();
+        request.setItemId(item.getId());
+        request.setStart(LocalDateTime.now().plusDays(startDays));
+        request.setEnd(LocalDateTime.now().plusDays(endDays));
+        return request;
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.AsyncMvc;
+import ru.practicum.shareit.TestFixtures;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.TestFixtures.user;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class BookingPagingTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+    private List<Long> newestFirst;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("owner"));
+        booker = userRepository.save(user("booker"));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            items.add(itemRepository.save(item("Tripod " + i)));
+        }
+        itemRepository.flush();
+        Long oldest = insert(items.get(0), NOW.plusDays(1));
+        Long tiedFirst = insert(items.get(0), NOW.plusDays(3));
+        Long tiedSecond = insert(items.get(1), NOW.plusDays(3));
+        Long tiedThird = insert(items.get(2), NOW.plusDays(3));
+        Long newest = insert(items.get(1), NOW.plusDays(5));
+        newestFirst = List.of(newest, tiedThird, tiedSecond, tiedFirst, oldest);
+    }
+
+    @Test
+    void bookerPagesCoverTiesWithoutRepeatsOrGaps() throws Exception {
+        assertThat(pageThrough("/bookings", booker, 2)).containsExactlyElementsOf(newestFirst);
+        assertThat(pageThrough("/bookings", booker, 3)).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void ownerPagesCoverTiesWithoutRepeatsOrGaps() throws Exception {
+        assertThat(pageThrough("/bookings/owner", owner, 2)).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void unpagedListHasNoCursor() throws Exception {
+        MvcResult result = AsyncMvc.perform(mvc, get("/bookings")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
+                .andReturn();
+
+        assertThat(ids(result)).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void badPageParametersAreRejected() throws Exception {
+        mvc.perform(get("/bookings").accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, booker.getId())
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/bookings").accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, booker.getId())
+                        .param("size", "2")
+                        .param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> pageThrough(String path, User user, int size) throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult result = AsyncMvc.perform(mvc, get(path)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header(USER_HEADER, user.getId())
+                            .param("size", String.valueOf(size))
+                            .param("cursor", cursor == null ? "" : cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            List<Long> page = ids(result);
+            assertThat(page.size()).isLessThanOrEqualTo(size);
+            seen.addAll(page);
+            cursor = result.getResponse().getHeader(NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return seen;
+    }
+
+    private static List<Long> ids(MvcResult result) throws Exception {
+        List<Number> ids = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+        return ids.stream().map(Number::longValue).collect(Collectors.toList());
+    }
+
+    private Long insert(Item item, LocalDateTime start) {
+        return new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("booking")
+                .withoutTableColumnMetaDataAccess()
+                .usingColumns("start_time", "end_time", "item_id", "user_id", "status")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(Map.of(
+                        "start_time", Timestamp.valueOf(start),
+                        "end_time", Timestamp.valueOf(start.plusHours(1)),
+                        "item_id", item.getId(),
+                        "user_id", booker.getId(),
+                        "status", Status.WAITING.name()))
+                .longValue();
+    }
+
+    private Item item(String name) {
+        return TestFixtures.item(name, "Camera tripod", owner.getId());
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.AccessRightsError;
+import ru.practicum.shareit.exception.TheItemHasAlreadyBeenBooked;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static ru.practicum.shareit.TestFixtures.item;
+import static ru.practicum.shareit.TestFixtures.user;
+
+/**
+ * Statistics count every statement of the session factory, so the scheduled jobs run only at startup.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.outbox.relay-interval-ms=3600000",
+        "shareit.bookings.roll-forward-interval-ms=3600000"
+})
+@Transactional
+class BookingQueryCountTest {
+    private static final int BOOKINGS = 1000;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Booking first;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(user("owner"));
+        booker = userRepository.save(user("booker"));
+        Item item = itemRepository.save(item("Drill", "Cordless drill", owner.getId()));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setStart(start.plusHours(2L * i));
+            booking.setEnd(start.plusHours(2L * i + 1));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(Status.WAITING);
+            bookings.add(booking);
+        }
+        first = bookingRepository.saveAll(bookings).get(0);
+        summaryRepository.save(new ItemBookingSummary(item.getId()));
+        entityManager.flush();
+        entityManager.clear();
+        bookingService.getBooking(first.getId(), booker.getId());
+    }
+
+    @Test
+    void bookingListIsOneStatement() throws Exception {
+        statistics.clear();
+
+        List<BookingResponseDto> bookings = bookingService.getAllBookingByUser(booker.getId(), Status.ALL,
+                BookingCursor.FIRST, Integer.MAX_VALUE);
+        objectMapper.writeValueAsString(bookings);
+
+        assertThat(bookings).hasSize(BOOKINGS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void singleBookingIsOneStatement() throws Exception {
+        entityManager.clear();
+        statistics.clear();
+
+        BookingResponseDto booking = bookingService.getBooking(first.getId(), booker.getId());
+        objectMapper.writeValueAsString(booking);
+
+        assertThat(booking.getItem().getName()).isEqualTo("Drill");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void confirmationIsUpdateReadBackSummaryLockAndOutboxInsert() {
+        entityManager.clear();
+        statistics.clear();
+
+        BookingResponseDto booking = bookingService.confirmTheBooking(owner.getId(), first.getId(), true);
+
+        assertThat(booking.getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(summaryRepository.findById(booking.getItem().getId()))
+                .hasValueSatisfying(summary -> assertThat(summary.getNextBookingId()).isEqualTo(first.getId()));
+        assertThatThrownBy(() -> bookingService.confirmTheBooking(owner.getId(), first.getId(), true))
+                .isInstanceOf(TheItemHasAlreadyBeenBooked.class);
+        assertThatThrownBy(() -> bookingService.confirmTheBooking(booker.getId(), first.getId(), false))
+                .isInstanceOf(AccessRightsError.class);
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.AsyncMvc;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.TestFixtures.item;
+import static ru.practicum.shareit.TestFixtures.user;
+
+/**
+ * One booking per stored status, spread over past, current and future dates.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class BookingStateTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private final Map<Status, List<Long>> expected = new EnumMap<>(Status.class);
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("owner"));
+        booker = userRepository.save(user("booker"));
+        item = itemRepository.saveAndFlush(item("Ladder", "Folding ladder", owner.getId()));
+
+        Long past = insert(NOW.minusDays(3), NOW.minusDays(2), Status.APPROVED);
+        Long current = insert(NOW.minusHours(1), NOW.plusHours(1), Status.APPROVED);
+        Long waiting = insert(NOW.plusDays(1), NOW.plusDays(2), Status.WAITING);
+        Long rejected = insert(NOW.plusDays(3), NOW.plusDays(4), Status.REJECTED);
+        Long canceled = insert(NOW.plusDays(5), NOW.plusDays(6), Status.CANCELED);
+
+        expected.put(Status.ALL, List.of(canceled, rejected, waiting, current, past));
+        expected.put(Status.PAST, List.of(past));
+        expected.put(Status.CURRENT, List.of(current));
+        expected.put(Status.FUTURE, List.of(canceled, rejected, waiting, current));
+        expected.put(Status.WAITING, List.of(waiting));
+        expected.put(Status.APPROVED, List.of(current, past));
+        expected.put(Status.REJECTED, List.of(rejected));
+        expected.put(Status.CANCELED, List.of(canceled));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Status.class)
+    void everyStateIsAnsweredForBookerAndOwner(Status state) throws Exception {
+        assertThat(list("/bookings", booker, state.name())).containsExactlyElementsOf(expected.get(state));
+        assertThat(list("/bookings/owner", owner, state.name().toLowerCase()))
+                .containsExactlyElementsOf(expected.get(state));
+    }
+
+    @Test
+    void unknownStateIsRejected() throws Exception {
+        mvc.perform(get("/bookings").accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, booker.getId())
+                        .param("state", "UNSUPPORTED_STATUS"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    private List<Long> list(String path, User user, String state) throws Exception {
+        MvcResult result = AsyncMvc.perform(mvc, get(path)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, user.getId())
+                        .param("state", state))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<Number> ids = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+        return ids.stream().map(Number::longValue).collect(Collectors.toList());
+    }
+
+    private Long insert(LocalDateTime start, LocalDateTime end, Status status) {
+        return new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("booking")
+                .withoutTableColumnMetaDataAccess()
+                .usingColumns("start_time", "end_time", "item_id", "user_id", "status")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(Map.of(
+                        "start_time", Timestamp.valueOf(start),
+                        "end_time", Timestamp.valueOf(end),
+                        "item_id", item.getId(),
+                        "user_id", booker.getId(),
+                        "status", status.name()))
+                .longValue();
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.TestFixtures.item;
+import static ru.practicum.shareit.TestFixtures.user;
+
+/**
+ * The summary moves on by itself once the next booking starts, so these tests commit their data
+ * (roll-forward runs in its own transaction) and wait for a booking starting a second from now.
+ */
+@SpringBootTest(properties = "shareit.bookings.roll-forward-interval-ms=3600000")
+class ItemBookingRollForwardTest {
+    @Autowired
+    private ItemBookingTracker tracker;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Long past;
+    private Long soon;
+    private Long later;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        owner = userRepository.save(user("owner"));
+        booker = userRepository.save(user("booker"));
+        item = itemRepository.save(item("Canoe", "Open canoe", owner.getId()));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        past = insert(now.minusDays(2), now.minusDays(1));
+        soon = insert(now.plusSeconds(1), now.plusDays(1));
+        later = insert(now.plusDays(2), now.plusDays(3));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                tracker.onChanged(bookingRepository.findWithItemAndBookerById(later).orElseThrow()));
+
+        assertThat(tracker.summary(item.getId())).hasValueSatisfying(summary -> {
+            assertThat(summary.getLastBookingId()).isEqualTo(past);
+            assertThat(summary.getNextBookingId()).isEqualTo(soon);
+        });
+        Thread.sleep(1100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from item_booking_summary where item_id = ?", item.getId());
+        jdbcTemplate.update("delete from booking where item_id = ?", item.getId());
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void scheduledRollForwardMovesStartedBookingToLast() {
+        tracker.rollForward();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select last_booking_id, next_booking_id from item_booking_summary where item_id = ?", item.getId());
+        assertThat(((Number) row.get("last_booking_id")).longValue()).isEqualTo(soon);
+        assertThat(((Number) row.get("next_booking_id")).longValue()).isEqualTo(later);
+    }
+
+    @Test
+    void readBeforeTheTimerSeesStartedBookingAsLast() {
+        assertThat(tracker.summaries(List.of(item.getId())).get(item.getId()))
+                .satisfies(summary -> {
+                    assertThat(summary.getLastBookingId()).isEqualTo(soon);
+                    assertThat(summary.getNextBookingId()).isEqualTo(later);
+                });
+        assertThat(tracker.summary(item.getId())).hasValueSatisfying(summary -> {
+            assertThat(summary.getLastBookingId()).isEqualTo(soon);
+            assertThat(summary.getNextBookingId()).isEqualTo(later);
+        });
+    }
+
+    private Long insert(LocalDateTime start, LocalDateTime end) {
+        return new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("booking")
+                .withoutTableColumnMetaDataAccess()
+                .usingColumns("start_time", "end_time", "item_id", "user_id", "status")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(Map.of(
+                        "start_time", Timestamp.valueOf(start),
+                        "end_time", Timestamp.valueOf(end),
+                        "item_id", item.getId(),
+                        "user_id", booker.getId(),
+                        "status", Status.APPROVED.name()))
+                .longValue();
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.TestFixtures.item;
+import static ru.practicum.shareit.TestFixtures.user;
+
+/**
+ * Bookings are inserted with JDBC, so past start times get past entity validation.
+ */
+@SpringBootTest
+@Transactional
+class ItemBookingTrackerTest {
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private ItemBookingTracker tracker;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(user("owner"));
+        booker = userRepository.save(user("booker"));
+        item = itemRepository.save(item("Kayak", "Two-seat kayak", owner.getId()));
+        entityManager.flush();
+    }
+
+    @Test
+    void equalStartTimesResolveByIdOnBothPaths() {
+        Long first = insert(NOW.minusDays(2), NOW.minusDays(1), Status.APPROVED);
+        Long second = insert(NOW.minusDays(2), NOW.minusDays(1), Status.APPROVED);
+        Long third = insert(NOW.minusDays(2), NOW.minusDays(1), Status.APPROVED);
+        Long soon = insert(NOW.plusDays(1), NOW.plusDays(2), Status.WAITING);
+        Long later = insert(NOW.plusDays(1), NOW.plusDays(2), Status.WAITING);
+
+        for (Long id : new Long[]{first, third, second, later, soon}) {
+            tracker.onChanged(load(id));
+        }
+
+        assertThat(lastBookingId()).isEqualTo(third);
+        assertThat(nextBookingId()).isEqualTo(soon);
+
+        reject(third);
+        reject(soon);
+
+        assertThat(lastBookingId()).isEqualTo(second);
+        assertThat(nextBookingId()).isEqualTo(later);
+    }
+
+    @Test
+    void missingSummaryIsRecountedOnFirstWrite() {
+        Long past = insert(NOW.minusDays(3), NOW.minusDays(2), Status.APPROVED);
+        Long future = insert(NOW.plusDays(3), NOW.plusDays(4), Status.APPROVED);
+        assertThat(tracker.summary(item.getId())).isEmpty();
+
+        Long rejected = insert(NOW.plusDays(1), NOW.plusDays(2), Status.REJECTED);
+        tracker.onChanged(load(rejected));
+
+        assertThat(lastBookingId()).isEqualTo(past);
+        assertThat(nextBookingId()).isEqualTo(future);
+    }
+
+    private Long lastBookingId() {
+        return tracker.summary(item.getId()).map(ItemBookingSummary::getLastBookingId).orElse(null);
+    }
+
+    private Long nextBookingId() {
+        return tracker.summary(item.getId()).map(ItemBookingSummary::getNextBookingId).orElse(null);
+    }
+
+    private void reject(Long bookingId) {
+        jdbcTemplate.update("update booking set status = ? where id = ?", Status.REJECTED.name(), bookingId);
+        tracker.onChanged(load(bookingId));
+    }
+
+    private Booking load(Long bookingId) {
+        entityManager.flush();
+        entityManager.clear();
+        return bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow();
+    }
+
+    private Long insert(LocalDateTime start, LocalDateTime end, Status status) {
+        return new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("booking")
+                .withoutTableColumnMetaDataAccess()
+                .usingColumns("start_time", "end_time", "item_id", "user_id", "status")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(Map.of(
+                        "start_time", Timestamp.valueOf(start),
+                        "end_time", Timestamp.valueOf(end),
+                        "item_id", item.getId(),
+                        "user_id", booker.getId(),
+                        "status", status.name()))
+                .longValue();
+    }
+}
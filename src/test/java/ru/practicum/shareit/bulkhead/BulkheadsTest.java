@@ -0,0 +1,82 @@
+package ru.practicum.shareit.bulkhead;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadsTest {
+    private final CountDownLatch slowQueries = new CountDownLatch(1);
+    private Bulkheads bulkheads;
+
+    @AfterEach
+    void tearDown() {
+        slowQueries.countDown();
+        if (bulkheads != null) {
+            bulkheads.destroy();
+        }
+    }
+
+    @Test
+    void runsInlineWhenDisabled() {
+        bulkheads = new Bulkheads(new BulkheadProperties());
+
+        CompletableFuture<String> result = bulkheads.submit(EndpointGroup.USERS, () -> Thread.currentThread().getName());
+
+        assertThat(result.join()).isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void saturatedGroupRejectsWithoutSlowingOtherGroups() throws Exception {
+        bulkheads = new Bulkheads(properties(4, 8));
+        List<CompletableFuture<Boolean>> blocked = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            blocked.add(bulkheads.submit(EndpointGroup.BOOKING_LISTS, () -> await(slowQueries)));
+        }
+
+        assertThatThrownBy(() -> bulkheads.submit(EndpointGroup.BOOKING_LISTS, () -> true).get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ServiceOverloadedException.class);
+
+        long[] latencies = new long[200];
+        for (int i = 0; i < latencies.length; i++) {
+            long started = System.nanoTime();
+            bulkheads.submit(EndpointGroup.USERS, () -> "user").get(1, TimeUnit.SECONDS);
+            latencies[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(latencies);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(latencies[latencies.length * 99 / 100])).isLessThan(100);
+
+        slowQueries.countDown();
+        for (CompletableFuture<Boolean> future : blocked) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private static BulkheadProperties properties(int maxConcurrent, int maxQueued) {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setEnabled(true);
+        properties.getDefaults().setMaxConcurrent(maxConcurrent);
+        properties.getDefaults().setMaxQueued(maxQueued);
+        return properties;
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearCacheTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final NearCache<Long, String> cache = new NearCache<>("test", 16, Duration.ofMinutes(1), Duration.ZERO,
+            clock::get);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidationInsideTransactionDropsLoadsMadeBeforeCommit() {
+        cache.get(1L, id -> Optional.of("old"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(1L);
+        assertThat(cache.get(1L, id -> Optional.of("old"))).contains("old");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.get(1L, id -> Optional.of("new"))).contains("new");
+    }
+
+    @Test
+    void loadRacingWithCommitIsNotStored() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L, id -> {
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            return Optional.of("old");
+        })).contains("old");
+
+        assertThat(cache.get(1L, id -> Optional.of("new"))).contains("new");
+    }
+
+    @Test
+    void invalidatingOneKeyKeepsTheLoadOfAnother() {
+        assertThat(cache.get(1L, id -> {
+            cache.invalidate(2L);
+            return Optional.of("one");
+        })).contains("one");
+
+        assertThat(cache.get(1L, id -> Optional.of("reloaded"))).contains("one");
+    }
+
+    @Test
+    void leastRecentlyReadEntryIsEvictedOnceFull() {
+        NearCache<Long, String> small = new NearCache<>("small", 3, Duration.ofMinutes(1), Duration.ZERO, clock::get);
+        for (long key = 1; key <= 3; key++) {
+            clock.incrementAndGet();
+            small.get(key, id -> Optional.of("v" + id));
+        }
+        clock.incrementAndGet();
+        small.get(1L, id -> Optional.of("reloaded"));
+
+        clock.incrementAndGet();
+        small.get(4L, id -> Optional.of("v4"));
+
+        assertThat(small.stats().getSize()).isEqualTo(3);
+        assertThat(small.get(1L, id -> Optional.of("reloaded"))).contains("v1");
+        assertThat(small.get(2L, id -> Optional.of("reloaded"))).contains("reloaded");
+        assertThat(small.stats().getEvictions()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredEntryIsReloaded() {
+        cache.get(1L, id -> Optional.of("old"));
+        clock.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertThat(cache.get(1L, id -> Optional.of("new"))).contains("old");
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get(1L, id -> Optional.of("new"))).contains("new");
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void countersArePublishedAsCacheMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new NearCacheMetrics(cache).bindTo(registry);
+
+        cache.get(1L, id -> Optional.of("one"));
+        cache.get(1L, id -> Optional.of("one"));
+        cache.get(2L, id -> Optional.empty());
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        cache.get(1L, id -> Optional.of("one"));
+
+        assertThat(cache.stats()).isEqualTo(new NearCache.Stats("test", 1, 16, 1, 3, 2, 1));
+        assertThat(registry.get("cache.gets").tag("cache", "test").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(3);
+        assertThat(registry.get("cache.puts").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.evictions").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void loadsAreNotStoredWhileTheCommittedWriteMayStillBeOnItsWayToReplicas() {
+        NearCache<Long, String> held = new NearCache<>("held", 16, Duration.ofMinutes(1), Duration.ofSeconds(5),
+                clock::get);
+        held.get(1L, id -> Optional.of("old"));
+        TransactionSynchronizationManager.initSynchronization();
+        held.invalidate(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(held.get(1L, id -> Optional.of("old"))).contains("old");
+        assertThat(held.get(1L, id -> Optional.of("new"))).contains("new");
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(held.get(1L, id -> Optional.of("new"))).contains("new");
+        assertThat(held.get(1L, id -> Optional.of("newer"))).contains("new");
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.AsyncMvc;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class BinaryFormatsTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Binary");
+        user.setEmail("binary" + System.nanoTime() + "@example.com");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void cborAndSmileAreServedWhenAccepted() throws Exception {
+        assertUser(decode(get("/users/" + user.getId()).accept(CBOR), CBOR, new ObjectMapper(new CBORFactory())));
+        assertUser(decode(get("/users/" + user.getId()).accept(SMILE), SMILE, new ObjectMapper(new SmileFactory())));
+    }
+
+    @Test
+    void formatParameterSelectsBinaryFormat() throws Exception {
+        assertUser(decode(get("/users/" + user.getId()).param("format", "cbor"), CBOR,
+                new ObjectMapper(new CBORFactory())));
+        assertUser(decode(get("/users/" + user.getId()).param("format", "smile"), SMILE,
+                new ObjectMapper(new SmileFactory())));
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        for (MockHttpServletRequestBuilder request : new MockHttpServletRequestBuilder[]{
+                get("/users/" + user.getId()),
+                get("/users/" + user.getId()).accept(MediaType.ALL),
+                get("/users/" + user.getId()).accept(MediaType.APPLICATION_JSON, CBOR, SMILE)}) {
+            AsyncMvc.perform(mvc, request.header(USER_HEADER, user.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.email").value(user.getEmail()));
+        }
+    }
+
+    private JsonNode decode(MockHttpServletRequestBuilder request, MediaType type, ObjectMapper mapper) throws Exception {
+        byte[] body = AsyncMvc.perform(mvc, request.header(USER_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(type))
+                .andReturn().getResponse().getContentAsByteArray();
+        return mapper.readTree(body);
+    }
+
+    private void assertUser(JsonNode node) {
+        assertThat(node.get("id").asLong()).isEqualTo(user.getId());
+        assertThat(node.get("name").asText()).isEqualTo("Binary");
+        assertThat(node.get("email").asText()).isEqualTo(user.getEmail());
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The replica is a second, never-updated H2 database, so a row is visible only on reads
+ * that were routed to the primary.
+ */
+@SpringBootTest(properties = {
+        "shareit.datasource.routing.enabled=true",
+        "shareit.datasource.routing.init-schema=true",
+        "shareit.datasource.routing.read-your-writes-window=1m",
+        "shareit.datasource.routing.replicas[0].url=jdbc:h2:mem:shareit-replica",
+        "shareit.datasource.routing.replicas[0].username=test",
+        "shareit.datasource.routing.replicas[0].password=test"
+})
+class ReplicaRoutingTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @AfterEach
+    void tearDown() {
+        CurrentUser.clear();
+    }
+
+    @Test
+    void readsGoToReplicaExceptForRecentWriters() {
+        CurrentUser.set(-1L);
+        UserDto saved = userService.saveUser(new UserDto(null, "routed" + System.nanoTime() + "@example.com", "routed"));
+
+        assertThat(userService.getAllUsers()).extracting(UserDto::getId).contains(saved.getId());
+
+        CurrentUser.set(-2L);
+        assertThat(userService.getAllUsers()).extracting(UserDto::getId).doesNotContain(saved.getId());
+    }
+
+    /**
+     * Another user's read right after the commit is served by the lagging replica; it must not be
+     * cached, or the writer would read the old row from the cache despite being kept on the primary.
+     */
+    @Test
+    void replicaReadsAfterAWriteAreNotCached() {
+        CurrentUser.set(-1L);
+        UserDto saved = userService.saveUser(new UserDto(null, "lagging" + System.nanoTime() + "@example.com", "old"));
+        new JdbcTemplate(routingDataSource.getResolvedDataSources().get("replica-0"))
+                .update("insert into users (id, email, name) values (?, ?, ?)", saved.getId(), saved.getEmail(), "old");
+        userService.updateUser(saved.getId(), new UserDto(null, null, "new"));
+
+        CurrentUser.set(-2L);
+        assertThat(userService.getUser(saved.getId()).getName()).isEqualTo("old");
+
+        CurrentUser.set(-1L);
+        assertThat(userService.getUser(saved.getId()).getName()).isEqualTo("new");
+    }
+}
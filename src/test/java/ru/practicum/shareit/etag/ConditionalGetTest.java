@@ -0,0 +1,154 @@
+package ru.practicum.shareit.etag;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.AsyncMvc;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.TestFixtures.item;
+import static ru.practicum.shareit.TestFixtures.user;
+
+/**
+ * A tag is taken, answered with 304, and must change after each write that changes the body.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class ConditionalGetTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("owner"));
+        booker = userRepository.save(user("booker"));
+        item = itemRepository.save(item("Drill", "Cordless drill", owner.getId()));
+        entityManager.flush();
+    }
+
+    @Test
+    void userTagChangesAfterUpdate() throws Exception {
+        String path = "/users/" + owner.getId();
+        String etag = tag(path, owner);
+        assertNotModified(path, owner, etag);
+
+        perform(patch(path).contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"renamed\"}"), owner);
+
+        assertChanged(path, owner, etag);
+    }
+
+    @Test
+    void itemTagChangesAfterUpdateBookingAndComment() throws Exception {
+        String path = "/items/" + item.getId();
+        String etag = tag(path, owner);
+        assertNotModified(path, owner, etag);
+
+        perform(patch(path).contentType(MediaType.APPLICATION_JSON).content("{\"description\":\"Hammer drill\"}"), owner);
+        etag = assertChanged(path, owner, etag);
+
+        createBooking();
+        etag = assertChanged(path, owner, etag);
+
+        String bookerTag = tag(path, booker);
+        jdbcTemplate.update("insert into booking (start_time, end_time, item_id, user_id, status) values (?, ?, ?, ?, ?)",
+                Timestamp.valueOf(NOW.minusDays(2)), Timestamp.valueOf(NOW.minusDays(1)),
+                item.getId(), booker.getId(), Status.APPROVED.name());
+        perform(post(path + "/comment").contentType(MediaType.APPLICATION_JSON).content("{\"text\":\"Works\"}"), booker);
+        assertChanged(path, booker, bookerTag);
+        assertChanged(path, owner, etag);
+    }
+
+    @Test
+    void bookingTagChangesAfterStatusChange() throws Exception {
+        String path = "/bookings/" + createBooking();
+        String etag = tag(path, booker);
+        assertNotModified(path, booker, etag);
+
+        perform(patch(path).param("approved", "true"), owner);
+
+        assertChanged(path, booker, etag);
+    }
+
+    private long createBooking() throws Exception {
+        String body = "{\"itemId\":" + item.getId() + ",\"start\":\"" + NOW.plusDays(1) + "\",\"end\":\""
+                + NOW.plusDays(2) + "\"}";
+        String response = perform(post("/bookings").contentType(MediaType.APPLICATION_JSON).content(body), booker);
+        return ((Number) JsonPath.read(response, "$.id")).longValue();
+    }
+
+    private String perform(MockHttpServletRequestBuilder request,
+                           User user) throws Exception {
+        return AsyncMvc.perform(mvc, request.accept(MediaType.APPLICATION_JSON).header(USER_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private String tag(String path, User user) throws Exception {
+        String etag = AsyncMvc.perform(mvc, get(path).accept(MediaType.APPLICATION_JSON).header(USER_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        return etag;
+    }
+
+    private void assertNotModified(String path, User user, String etag) throws Exception {
+        AsyncMvc.perform(mvc, get(path).accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, user.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    private String assertChanged(String path, User user, String etag) throws Exception {
+        AsyncMvc.perform(mvc, get(path).accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, user.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        String changed = tag(path, user);
+        assertThat(changed).isNotEqualTo(etag);
+        return changed;
+    }
+}
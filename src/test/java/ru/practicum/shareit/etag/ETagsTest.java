@@ -0,0 +1,24 @@
+package ru.practicum.shareit.etag;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+
+    @Test
+    void buildsStrongTagFromParts() {
+        assertThat(ETags.of("i", 5L, 2L, null)).isEqualTo("\"i-5-2-0\"");
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        String etag = ETags.of("u", 1L, 3L);
+
+        assertThat(ETags.matches("\"u-1-2\", W/\"u-1-3\"", etag)).isTrue();
+        assertThat(ETags.matches("*", etag)).isTrue();
+        assertThat(ETags.matches("\"u-1-2\"", etag)).isFalse();
+        assertThat(ETags.matches(null, etag)).isFalse();
+        assertThat(ETags.matches("*", null)).isFalse();
+    }
+}
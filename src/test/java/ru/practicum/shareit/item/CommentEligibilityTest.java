@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CommentEligibilityTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private BookingRepository repository;
+    private CommentEligibility eligibility;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(BookingRepository.class);
+        when(repository.existsByBookerIdAndItemIdAndStatusAndEndBefore(7L, 3L, Status.APPROVED, NOW)).thenReturn(true);
+        eligibility = new CommentEligibility(repository);
+    }
+
+    @Test
+    void strangerIsCheckedInDatabase() {
+        assertThat(eligibility.isEligible(8L, 3L, NOW)).isFalse();
+
+        verify(repository).existsByBookerIdAndItemIdAndStatusAndEndBefore(eq(8L), eq(3L), eq(Status.APPROVED), eq(NOW));
+    }
+
+    @Test
+    void bookerIsCheckedInDatabase() {
+        assertThat(eligibility.isEligible(7L, 3L, NOW)).isTrue();
+
+        verify(repository).existsByBookerIdAndItemIdAndStatusAndEndBefore(eq(7L), eq(3L), eq(Status.APPROVED), eq(NOW));
+    }
+}
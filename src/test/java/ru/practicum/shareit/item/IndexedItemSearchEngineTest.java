@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.TestFixtures;
+import ru.practicum.shareit.booking.BookingCalendar;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndexedItemSearchEngineTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+    private static final LocalDateTime END = START.plusHours(8);
+
+    private ItemRepository itemRepository;
+    private BookingCalendar bookingCalendar;
+    private IndexedItemSearchEngine engine;
+    private final List<List<Long>> asked = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Item> catalog = LongStream.rangeClosed(1, 30).mapToObj(IndexedItemSearchEngineTest::item)
+                .collect(Collectors.toList());
+        itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAll(any(Pageable.class))).thenAnswer(invocation ->
+                new PageImpl<>(catalog, invocation.getArgument(0), catalog.size()));
+        bookingCalendar = mock(BookingCalendar.class);
+        engine = new IndexedItemSearchEngine(itemRepository, bookingCalendar);
+        engine.rebuild();
+    }
+
+    @Test
+    void busyMatchesAreSkippedAndOnlyNewOnesCheckedInTheNextRound() {
+        Set<Long> busy = LongStream.rangeClosed(21, 30).boxed().collect(Collectors.toSet());
+        when(bookingCalendar.busyItems(anyList(), any(), any())).thenAnswer(invocation -> {
+            List<Long> ids = new ArrayList<>(invocation.getArgument(0));
+            asked.add(ids);
+            return ids.stream().filter(busy::contains).collect(Collectors.toSet());
+        });
+
+        List<ItemInfo> page = engine.searchFree("drill", START, END, 2, 3);
+
+        assertThat(page).extracting(ItemInfo::getId).containsExactly(18L, 17L, 16L);
+        assertThat(asked).hasSize(2);
+        assertThat(asked.get(0)).hasSize(10).allMatch(busy::contains);
+        assertThat(asked.get(1)).hasSize(10).doesNotContainAnyElementsOf(asked.get(0));
+        verify(bookingCalendar).busyItems(asked.get(1), START, END);
+    }
+
+    @Test
+    void pageBeyondTheFreeMatchesIsEmpty() {
+        when(bookingCalendar.busyItems(anyList(), any(), any())).thenReturn(Set.of());
+
+        assertThat(engine.searchFree("drill", START, END, 30, 5)).isEmpty();
+        assertThat(engine.searchFree("drill", START, END, 28, 5)).extracting(ItemInfo::getId)
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void changesCommittedDuringARebuildSurviveTheStalePages() {
+        List<Item> stale = LongStream.rangeClosed(1, 30).mapToObj(IndexedItemSearchEngineTest::item)
+                .collect(Collectors.toList());
+        when(itemRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            Item renamed = item(5);
+            renamed.setName("hammer 5");
+            engine.onSaved(renamed);
+            engine.onDeleted(6L);
+            assertThat(engine.search("hammer")).extracting(ItemInfo::getId).containsExactly(5L);
+            return new PageImpl<>(stale, invocation.getArgument(0), stale.size());
+        });
+
+        engine.rebuild();
+
+        assertThat(engine.search("hammer")).extracting(ItemInfo::getId).containsExactly(5L);
+        assertThat(engine.search("drill")).extracting(ItemInfo::getId).hasSize(28).doesNotContain(5L, 6L);
+    }
+
+    private static Item item(long id) {
+        Item item = TestFixtures.item("drill " + id, "Cordless", null);
+        item.setId(id);
+        return item;
+    }
+}
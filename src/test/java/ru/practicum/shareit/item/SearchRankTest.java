@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.TestFixtures.item;
+
+class SearchRankTest {
+
+    @Test
+    void namesBeforeDescriptionsThenFrequencyThenNewest() {
+        SearchRank rank = new SearchRank(10);
+        offer(rank, 1, "ladder", "drill drill drill included");
+        offer(rank, 2, "drill", "cordless");
+        offer(rank, 3, "drill", "drill and bits");
+        offer(rank, 4, "old drill", "cordless");
+        offer(rank, 5, "tent", "four person");
+
+        assertThat(rank.page(0)).extracting(ItemInfo::getId).containsExactly(3L, 4L, 2L, 1L);
+        assertThat(rank.page(2)).extracting(ItemInfo::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void keepsOnlyTheBestK() {
+        SearchRank rank = new SearchRank(3);
+        for (long id = 1; id <= 1000; id++) {
+            offer(rank, id, id % 100 == 0 ? "drill " + id : "item " + id, "drill");
+        }
+
+        List<ItemInfo> page = rank.page(0);
+
+        assertThat(page).extracting(ItemInfo::getId).containsExactly(1000L, 900L, 800L);
+    }
+
+    private static void offer(SearchRank rank, long id, String name, String description) {
+        Item item = item(name, description, null);
+        item.setId(id);
+        IndexedItemSearchEngine.IndexedItem.of(item).rank(rank, "drill");
+    }
+}
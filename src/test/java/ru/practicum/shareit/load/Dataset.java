@@ -0,0 +1,47 @@
+package ru.practicum.shareit.load;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ids of the seeded rows that scenarios pick their parameters from.
+ */
+class Dataset {
+    private final List<Long> userIds;
+    private final List<Long> itemIds;
+    private final List<Long> itemOwnerIds;
+
+    Dataset(List<Long> userIds, List<Long> itemIds, List<Long> itemOwnerIds) {
+        this.userIds = userIds;
+        this.itemIds = itemIds;
+        this.itemOwnerIds = itemOwnerIds;
+    }
+
+    long randomUser() {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+    }
+
+    int randomItemIndex() {
+        return ThreadLocalRandom.current().nextInt(itemIds.size());
+    }
+
+    long itemId(int index) {
+        return itemIds.get(index);
+    }
+
+    long ownerOf(int index) {
+        return itemOwnerIds.get(index);
+    }
+
+    /**
+     * A user other than the item's owner.
+     */
+    long nonOwnerOf(int index) {
+        long owner = ownerOf(index);
+        long user;
+        do {
+            user = randomUser();
+        } while (user == owner);
+        return user;
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.load;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencies of one worker per scenario, merged into per-endpoint throughput and percentiles
+ * once the run is over. Workers record into their own instance, so recording takes no lock.
+ */
+class LatencyReport {
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    void record(String scenario, long nanos, int status) {
+        samples.computeIfAbsent(scenario, name -> new Samples()).add(nanos, status);
+    }
+
+    static LatencyReport merge(Collection<LatencyReport> reports) {
+        LatencyReport merged = new LatencyReport();
+        for (LatencyReport report : reports) {
+            report.samples.forEach((name, part) -> merged.samples.computeIfAbsent(name, key -> new Samples()).addAll(part));
+        }
+        return merged;
+    }
+
+    long serverErrors() {
+        return samples.values().stream().mapToLong(part -> part.serverErrors).sum();
+    }
+
+    String format(long measuredNanos) {
+        double seconds = measuredNanos / 1e9;
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-16s %9s %9s %7s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "4xx", "5xx", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        samples.forEach((name, part) -> {
+            long[] sorted = part.sorted();
+            out.append(String.format(Locale.ROOT, "%-16s %9d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                    name, sorted.length, sorted.length / seconds, part.clientErrors, part.serverErrors,
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                    millis(percentile(sorted, 0.999)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+        });
+        return out.toString();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long clientErrors;
+        private long serverErrors;
+
+        private void add(long latency, int status) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            if (status >= 500 || status < 0) {
+                serverErrors++;
+            } else if (status >= 400) {
+                clientErrors++;
+            }
+        }
+
+        private void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                if (size == nanos.length) {
+                    nanos = Arrays.copyOf(nanos, size * 2);
+                }
+                nanos[size++] = other.nanos[i];
+            }
+            clientErrors += other.clientErrors;
+            serverErrors += other.serverErrors;
+        }
+
+        private long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.load;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load: each of {@code concurrency} workers sends a request picked from the weighted
+ * mix, waits for the response and sends the next one. Requests finished during the warm-up
+ * are not recorded.
+ */
+class LoadGenerator {
+    private final String baseUrl;
+    private final Dataset dataset;
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadGenerator(String baseUrl, Dataset dataset, Map<String, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.cumulativeWeights = new int[mix.size()];
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            total += entry.getValue();
+            cumulativeWeights[scenarios.size()] = total;
+            scenarios.add(Scenario.byName(entry.getKey()));
+        }
+    }
+
+    /**
+     * Parses {@code "bookings-owner=30,item=20"}.
+     */
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            weights.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    LatencyReport run(int concurrency, Duration warmup, Duration duration) throws Exception {
+        long started = System.nanoTime();
+        long recordFrom = started + warmup.toNanos();
+        long stopAt = recordFrom + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<LatencyReport>> results = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                results.add(workers.submit(() -> work(recordFrom, stopAt)));
+            }
+            List<LatencyReport> reports = new ArrayList<>();
+            for (Future<LatencyReport> result : results) {
+                reports.add(result.get());
+            }
+            return LatencyReport.merge(reports);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private LatencyReport work(long recordFrom, long stopAt) throws InterruptedException {
+        LatencyReport report = new LatencyReport();
+        long now;
+        while ((now = System.nanoTime()) < stopAt) {
+            Scenario scenario = pick();
+            int status;
+            try {
+                status = client.send(scenario.request(baseUrl, dataset), HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            }
+            long finished = System.nanoTime();
+            if (now >= recordFrom && finished <= stopAt) {
+                report.record(scenario.getName(), finished - now, status);
+            }
+        }
+        return report;
+    }
+
+    private Scenario pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+}
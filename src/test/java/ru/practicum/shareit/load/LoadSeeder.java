@@ -0,0 +1,106 @@
+package ru.practicum.shareit.load;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemImportDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds users and items through the batch import services and bookings and requests with
+ * plain JDBC batches. Bookings are spread over past, current and future periods and over every
+ * stored status. A fixed seed makes runs comparable.
+ * <p>
+ * The bookings skip the write path, so schema.sql is run again afterwards: it fills in the
+ * item_booking_summary rows of items that have bookings but no summary. Booking admission reads
+ * an item's bookings from the database when the item is first booked, so it needs nothing.
+ */
+class LoadSeeder {
+    private static final String[] WORDS = {"drill", "tent", "ladder", "bike", "kayak", "saw", "projector", "grill"};
+    private static final Status[] STATUSES = {Status.WAITING, Status.APPROVED, Status.REJECTED, Status.CANCELED};
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+
+    LoadSeeder(UserService userService, ItemService itemService, JdbcTemplate jdbcTemplate) {
+        this.userService = userService;
+        this.itemService = itemService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    Dataset seed(int users, int items, int bookings, int requests) {
+        String run = Long.toString(System.nanoTime(), 36);
+        List<UserDto> userRows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userRows.add(new UserDto(null, "load" + i + "." + run + "@example.com", "Load user " + i));
+        }
+        BatchResult<UserDto> savedUsers = userService.saveUsers(userRows);
+        check(savedUsers);
+        List<Long> userIds = savedUsers.getCreated().stream().map(UserDto::getId).collect(Collectors.toList());
+
+        Map<Long, List<ItemImportDto>> itemRows = new LinkedHashMap<>();
+        for (int i = 0; i < items; i++) {
+            Long owner = userIds.get(random.nextInt(userIds.size()));
+            String word = WORDS[random.nextInt(WORDS.length)];
+            itemRows.computeIfAbsent(owner, id -> new ArrayList<>())
+                    .add(new ItemImportDto(word + " " + i, "A " + word + " to share", random.nextInt(10) > 0));
+        }
+        List<Long> itemIds = new ArrayList<>();
+        List<Long> owners = new ArrayList<>();
+        itemRows.forEach((owner, rows) -> {
+            BatchResult<ItemDto> savedItems = itemService.addItems(owner, rows);
+            check(savedItems);
+            for (ItemDto item : savedItems.getCreated()) {
+                itemIds.add(item.getId());
+                owners.add(owner);
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> bookingRows = new ArrayList<>();
+        for (int i = 0; i < bookings; i++) {
+            int item = random.nextInt(itemIds.size());
+            Long booker = userIds.get(random.nextInt(userIds.size()));
+            if (booker.equals(owners.get(item))) {
+                continue;
+            }
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 365) - 24 * 180);
+            LocalDateTime end = start.plusHours(1 + random.nextInt(72));
+            bookingRows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(end), itemIds.get(item), booker,
+                    STATUSES[random.nextInt(STATUSES.length)].name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO booking (start_time, end_time, item_id, user_id, status) VALUES (?, ?, ?, ?, ?)",
+                bookingRows);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(jdbcTemplate.getDataSource());
+
+        List<Object[]> requestRows = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            requestRows.add(new Object[]{"Looking for a " + WORDS[random.nextInt(WORDS.length)],
+                    userIds.get(random.nextInt(userIds.size())), Timestamp.valueOf(now.minusMinutes(random.nextInt(100_000)))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (description, user_id, create_date) VALUES (?, ?, ?)", requestRows);
+        return new Dataset(userIds, itemIds, owners);
+    }
+
+    private static void check(BatchResult<?> result) {
+        if (!result.getErrors().isEmpty()) {
+            throw new IllegalStateException("Seeding rejected rows: " + result.getErrors());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserService;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds an embedded H2 database, drives the HTTP endpoints with a weighted mix and prints
+ * throughput and p50/p99/p99.9 latency per endpoint to stdout and target/load-report.txt.
+ * Excluded from the normal build; run with {@code mvn test -Pload}. Settings are system properties:
+ * load.concurrency, load.warmup and load.duration (ISO-8601, e.g. PT20S), load.users, load.items,
+ * load.bookings, load.requests and load.mix.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load",
+        "logging.level.org.springframework.transaction.interceptor=INFO",
+        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO",
+        "logging.level.ru.practicum.shareit=WARN"
+})
+class LoadTest {
+    private static final String DEFAULT_MIX =
+            "bookings-owner=25,bookings=20,item=20,items=10,search=10,requests=5,user=5,create-booking=5";
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void endpointsUnderConcurrentLoad() throws Exception {
+        Dataset dataset = new LoadSeeder(userService, itemService, jdbcTemplate).seed(
+                Integer.getInteger("load.users", 1_000),
+                Integer.getInteger("load.items", 5_000),
+                Integer.getInteger("load.bookings", 100_000),
+                Integer.getInteger("load.requests", 5_000));
+        LoadGenerator generator = new LoadGenerator("http://localhost:" + port, dataset,
+                LoadGenerator.parseMix(System.getProperty("load.mix", DEFAULT_MIX)));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT20S"));
+
+        LatencyReport report = generator.run(Integer.getInteger("load.concurrency", 16),
+                Duration.parse(System.getProperty("load.warmup", "PT5S")), duration);
+
+        String table = report.format(duration.toNanos());
+        System.out.println(table);
+        Files.writeString(Files.createDirectories(Path.of("target")).resolve("load-report.txt"), table,
+                StandardCharsets.UTF_8);
+        assertThat(report.serverErrors()).isZero();
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.load;
+
+import ru.practicum.shareit.booking.Status;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * One endpoint of the mix: a name for the report and how to build a request for it.
+ */
+class Scenario {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String[] LIST_STATES = Arrays.stream(Status.values()).map(Status::name).toArray(String[]::new);
+    private static final String[] SEARCH_WORDS = {"drill", "tent", "ladder", "bike", "kayak", "saw", "projector", "grill"};
+    private static final AtomicLong BOOKING_SLOT = new AtomicLong();
+
+    private final String name;
+    private final BiFunction<String, Dataset, HttpRequest.Builder> request;
+
+    private Scenario(String name, BiFunction<String, Dataset, HttpRequest.Builder> request) {
+        this.name = name;
+        this.request = request;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    HttpRequest request(String baseUrl, Dataset dataset) {
+        return request.apply(baseUrl, dataset).timeout(Duration.ofSeconds(30)).build();
+    }
+
+    static Scenario byName(String name) {
+        switch (name) {
+            case "user":
+                return new Scenario(name, (url, data) -> get(url + "/users/" + data.randomUser()));
+            case "item":
+                return new Scenario(name, (url, data) -> {
+                    int item = data.randomItemIndex();
+                    return get(url + "/items/" + data.itemId(item)).header(USER_HEADER, String.valueOf(data.ownerOf(item)));
+                });
+            case "items":
+                return new Scenario(name, (url, data) -> get(url + "/items")
+                        .header(USER_HEADER, String.valueOf(data.ownerOf(data.randomItemIndex()))));
+            case "search":
+                return new Scenario(name, (url, data) -> get(url + "/items/search?text=" + pick(SEARCH_WORDS))
+                        .header(USER_HEADER, String.valueOf(data.randomUser())));
+            case "bookings":
+                return new Scenario(name, (url, data) -> get(url + "/bookings?size=20&state=" + pick(LIST_STATES))
+                        .header(USER_HEADER, String.valueOf(data.randomUser())));
+            case "bookings-owner":
+                return new Scenario(name, (url, data) -> get(url + "/bookings/owner?size=20&state=" + pick(LIST_STATES))
+                        .header(USER_HEADER, String.valueOf(data.ownerOf(data.randomItemIndex()))));
+            case "requests":
+                return new Scenario(name, (url, data) -> get(url + "/requests/all?size=20")
+                        .header(USER_HEADER, String.valueOf(data.randomUser())));
+            case "create-booking":
+                return new Scenario(name, (url, data) -> {
+                    int item = data.randomItemIndex();
+                    LocalDateTime start = LocalDateTime.now().withNano(0).plusYears(2).plusHours(BOOKING_SLOT.incrementAndGet());
+                    String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                            data.itemId(item), start, start.plusMinutes(30));
+                    return HttpRequest.newBuilder(URI.create(url + "/bookings"))
+                            .header(USER_HEADER, String.valueOf(data.nonOwnerOf(item)))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body));
+                });
+            default:
+                throw new IllegalArgumentException("Unknown scenario: " + name);
+        }
+    }
+
+    private static HttpRequest.Builder get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).header("Accept", "application/json").GET();
+    }
+
+    private static String pick(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import ru.practicum.shareit.booking.BookingDto;
+import ru.practicum.shareit.booking.BookingEvent;
+import ru.practicum.shareit.booking.BookingResponseDto;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.TestFixtures.item;
+import static ru.practicum.shareit.TestFixtures.user;
+
+/**
+ * Own database, so relays of other cached test contexts cannot drain these events.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox",
+        "shareit.outbox.relay-interval-ms=3600000"
+})
+@RecordApplicationEvents
+class OutboxRelayTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void bookingChangesAreRelayedInOrderAndRemoved() {
+        User owner = userRepository.save(user("owner"));
+        User booker = userRepository.save(user("booker"));
+        Item item = itemRepository.save(item("Tent", "Four-person tent", owner.getId()));
+        BookingDto request = new BookingDto();
+        request.setItemId(item.getId());
+        request.setStart(LocalDateTime.now().plusDays(1));
+        request.setEnd(LocalDateTime.now().plusDays(2));
+
+        BookingResponseDto booking = bookingService.createBooking(request, booker.getId());
+        bookingService.confirmTheBooking(owner.getId(), booking.getId(), true);
+        assertThat(outboxRepository.count()).isEqualTo(2);
+
+        outboxRelay.relay();
+
+        assertThat(events.stream(OutboxMessage.class))
+                .filteredOn(message -> message.getAggregateId().equals(booking.getId()))
+                .extracting(OutboxMessage::getType)
+                .containsExactly(BookingEvent.CREATED, BookingEvent.APPROVED);
+        assertThat(events.stream(OutboxMessage.class))
+                .filteredOn(message -> message.getAggregateId().equals(booking.getId()))
+                .extracting(OutboxMessage::getPayload)
+                .satisfiesExactly(created -> assertThat(created).contains("\"version\":0"),
+                        approved -> assertThat(approved).contains("\"version\":1"));
+        assertThat(outboxRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CallerLimitTest {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void admitsBurstThenOnePerInterval() {
+        CallerLimit limit = new CallerLimit(INTERVAL, 3, 100, 0);
+        for (int i = 0; i < 3; i++) {
+            assertThat(limit.tryAcquire(0)).isZero();
+        }
+
+        assertThat(limit.tryAcquire(0)).isEqualTo(INTERVAL);
+        assertThat(limit.tryAcquire(INTERVAL / 2)).isEqualTo(INTERVAL / 2);
+        assertThat(limit.tryAcquire(INTERVAL)).isZero();
+        assertThat(limit.tryAcquire(INTERVAL)).isPositive();
+    }
+
+    @Test
+    void refusesAboveMaxConcurrentUntilReleased() {
+        CallerLimit limit = new CallerLimit(1, 1000, 2, 0);
+        assertThat(limit.tryAcquire(0)).isZero();
+        assertThat(limit.tryAcquire(0)).isZero();
+
+        assertThat(limit.tryAcquire(0)).isPositive();
+        limit.release();
+        assertThat(limit.tryAcquire(0)).isZero();
+        assertThat(limit.retire(1_000_000)).isFalse();
+    }
+
+    @Test
+    void retiresOnlyWhenIdleAndThenRefusesEveryone() {
+        CallerLimit limit = new CallerLimit(INTERVAL, 3, 100, 0);
+        assertThat(limit.tryAcquire(0)).isZero();
+
+        assertThat(limit.retire(INTERVAL)).isFalse();
+        limit.release();
+        assertThat(limit.retire(INTERVAL / 2)).isFalse();
+        assertThat(limit.retire(INTERVAL)).isTrue();
+
+        assertThat(limit.tryAcquire(INTERVAL)).isEqualTo(CallerLimit.RETIRED);
+        assertThat(limit.tryAcquire(2 * INTERVAL)).isEqualTo(CallerLimit.RETIRED);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.AsyncMvc;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.TestFixtures.user;
+
+/**
+ * One user permit every 10 seconds with a burst of two, so the third call in a row is refused.
+ */
+@SpringBootTest(properties = {
+        "shareit.rate-limit.enabled=true",
+        "shareit.rate-limit.groups.users.permits-per-second=0.1",
+        "shareit.rate-limit.groups.users.burst=2",
+        "shareit.rate-limit.groups.users.max-concurrent=4"
+})
+@AutoConfigureMockMvc
+@Transactional
+class RateLimitTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    private User user;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(user("limited"));
+        other = userRepository.save(user("other"));
+    }
+
+    @Test
+    void callerOverTheBurstGets429WithRetryAfter() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            AsyncMvc.perform(mvc, getUser(user)).andExpect(status().isOk());
+        }
+
+        String retryAfter = mvc.perform(getUser(user))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.errorMessage").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+
+        assertThat(Long.parseLong(retryAfter)).isBetween(1L, 10L);
+        AsyncMvc.perform(mvc, getUser(other)).andExpect(status().isOk());
+        AsyncMvc.perform(mvc, get("/users/" + user.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void evictionKeepsLimitsOfActiveCallers() throws Exception {
+        AsyncMvc.perform(mvc, getUser(user)).andExpect(status().isOk());
+        AsyncMvc.perform(mvc, getUser(user)).andExpect(status().isOk());
+
+        rateLimiter.evictIdle();
+
+        mvc.perform(getUser(user)).andExpect(status().isTooManyRequests());
+    }
+
+    private MockHttpServletRequestBuilder getUser(User caller) {
+        return get("/users/" + user.getId()).accept(MediaType.APPLICATION_JSON).header(USER_HEADER, caller.getId());
+    }
+}
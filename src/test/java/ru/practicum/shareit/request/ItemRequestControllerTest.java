@@ -0,0 +1,196 @@
+package ru.practicum.shareit.request;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.AsyncMvc;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.TestFixtures.item;
+import static ru.practicum.shareit.TestFixtures.user;
+
+/**
+ * Feed requests are inserted with JDBC, so several of them can share a create_date.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class ItemRequestControllerTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final LocalDateTime FUTURE = LocalDateTime.now().plusYears(100).truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User requestor;
+    private User other;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        requestor = userRepository.save(user("requestor"));
+        other = userRepository.save(user("other"));
+        owner = userRepository.save(user("owner"));
+        userRepository.flush();
+    }
+
+    @Test
+    void createdRequestIsListedAsOwnAndReadable() throws Exception {
+        MvcResult created = AsyncMvc.perform(mvc, post("/requests")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, requestor.getId())
+                        .content("{\"description\":\"Need a ladder\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(notNullValue()))
+                .andExpect(jsonPath("$.created").value(notNullValue()))
+                .andExpect(jsonPath("$.items").value(empty()))
+                .andReturn();
+        long id = ((Number) JsonPath.read(created.getResponse().getContentAsString(), "$.id")).longValue();
+        answer(id, "Ladder");
+
+        AsyncMvc.perform(mvc, get("/requests").accept(MediaType.APPLICATION_JSON).header(USER_HEADER, requestor.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id))
+                .andExpect(jsonPath("$[0].items[0].name").value("Ladder"))
+                .andExpect(jsonPath("$[0].items[0].requestId").value(id))
+                .andExpect(jsonPath("$[0].items[0].ownerId").value(owner.getId()));
+        AsyncMvc.perform(mvc, get("/requests/" + id).accept(MediaType.APPLICATION_JSON).header(USER_HEADER, other.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Need a ladder"))
+                .andExpect(jsonPath("$.items[0].name").value("Ladder"));
+    }
+
+    @Test
+    void invalidRequestsAreRejected() throws Exception {
+        mvc.perform(post("/requests").accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, requestor.getId())
+                        .content("{\"description\":\" \"}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/requests/" + Long.MAX_VALUE).accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, requestor.getId()))
+                .andExpect(status().isNotFound());
+        for (String size : new String[]{"0", "101"}) {
+            mvc.perform(get("/requests/all").accept(MediaType.APPLICATION_JSON)
+                            .header(USER_HEADER, requestor.getId())
+                            .param("size", size))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    /**
+     * Dated a century ahead, these requests lead the feed ahead of any others in the database.
+     */
+    @Test
+    void feedPagesCoverTiesWithoutOwnRequests() throws Exception {
+        Long own = insert(requestor, FUTURE.plusDays(2));
+        List<Long> newestFirst = new ArrayList<>();
+        newestFirst.add(insert(other, FUTURE.plusDays(3)));
+        Long tiedFirst = insert(other, FUTURE.plusDays(1));
+        Long tiedSecond = insert(owner, FUTURE.plusDays(1));
+        Long tiedThird = insert(other, FUTURE.plusDays(1));
+        newestFirst.addAll(List.of(tiedThird, tiedSecond, tiedFirst));
+        Long ownOldest = insert(requestor, FUTURE);
+
+        for (int size : new int[]{2, 3}) {
+            List<Long> feed = pageThrough(size);
+            assertThat(feed.subList(0, newestFirst.size())).containsExactlyElementsOf(newestFirst);
+            assertThat(feed).doesNotContain(own, ownOldest).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void everyRequestOfAPageGetsItsOwnAnswers() throws Exception {
+        Long first = insert(other, FUTURE.plusDays(2));
+        Long second = insert(other, FUTURE.plusDays(1));
+        Long unanswered = insert(other, FUTURE);
+        answer(first, "Tent");
+        answer(second, "Stove");
+        answer(first, "Sleeping bag");
+
+        AsyncMvc.perform(mvc, get("/requests/all").accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, requestor.getId())
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(first))
+                .andExpect(jsonPath("$[0].items[*].name").value(containsInAnyOrder("Tent", "Sleeping bag")))
+                .andExpect(jsonPath("$[1].id").value(second))
+                .andExpect(jsonPath("$[1].items[*].name").value(contains("Stove")))
+                .andExpect(jsonPath("$[2].id").value(unanswered))
+                .andExpect(jsonPath("$[2].items").value(empty()));
+    }
+
+    private List<Long> pageThrough(int size) throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult result = AsyncMvc.perform(mvc, get("/requests/all")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header(USER_HEADER, requestor.getId())
+                            .param("size", String.valueOf(size))
+                            .param("cursor", cursor == null ? "" : cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            List<Number> ids = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+            assertThat(ids.size()).isLessThanOrEqualTo(size);
+            ids.forEach(id -> seen.add(id.longValue()));
+            cursor = result.getResponse().getHeader(NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return seen;
+    }
+
+    private Long insert(User user, LocalDateTime created) {
+        return new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("requests")
+                .withoutTableColumnMetaDataAccess()
+                .usingColumns("description", "user_id", "create_date")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(Map.of(
+                        "description", "Request of " + user.getName(),
+                        "user_id", user.getId(),
+                        "create_date", Timestamp.valueOf(created)))
+                .longValue();
+    }
+
+    private void answer(Long requestId, String name) {
+        Item item = item(name, name + " for the request", owner.getId());
+        item.setRequestId(requestId);
+        itemRepository.save(item);
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.TestFixtures.item;
+import static ru.practicum.shareit.TestFixtures.user;
+
+/**
+ * The search index only takes items after commit, so search runs on the sql engine here.
+ */
+@SpringBootTest(properties = "shareit.search.engine=sql")
+@AutoConfigureMockMvc
+@Transactional
+class NdjsonStreamTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final MediaType NDJSON = MediaType.parseMediaType(NdjsonWriter.APPLICATION_NDJSON_VALUE);
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("owner"));
+        booker = userRepository.save(user("booker"));
+        item = itemRepository.saveAndFlush(item("Snowboard", "Snowboard with bindings", owner.getId()));
+    }
+
+    @Test
+    void bookingsStreamOneDocumentPerLineNewestFirst() throws Exception {
+        Long older = insert(NOW.plusDays(1));
+        Long newer = insert(NOW.plusDays(2));
+
+        List<JsonNode> byAccept = lines(mvc.perform(get("/bookings").accept(NDJSON)
+                        .header(USER_HEADER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NDJSON))
+                .andReturn());
+        List<JsonNode> byParameter = lines(mvc.perform(get("/bookings/owner")
+                        .header(USER_HEADER, owner.getId())
+                        .param("format", "ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NDJSON))
+                .andReturn());
+
+        assertThat(byAccept).extracting(line -> line.get("id").asLong()).containsExactly(newer, older);
+        assertThat(byParameter).extracting(line -> line.get("id").asLong()).containsExactly(newer, older);
+        assertThat(byAccept.get(0).get("item").get("name").asText()).isEqualTo("Snowboard");
+    }
+
+    @Test
+    void usersAndSearchStream() throws Exception {
+        List<JsonNode> users = lines(mvc.perform(get("/users").accept(NDJSON))
+                .andExpect(status().isOk())
+                .andReturn());
+        List<JsonNode> found = lines(mvc.perform(get("/items/search").accept(NDJSON).param("text", "SNOWBOARD"))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        assertThat(users).extracting(line -> line.get("id").asLong()).contains(owner.getId(), booker.getId());
+        assertThat(found).extracting(line -> line.get("id").asLong()).containsExactly(item.getId());
+    }
+
+    @Test
+    void emptyStreamHasContentTypeAndNoLines() throws Exception {
+        MvcResult result = mvc.perform(get("/bookings").accept(NDJSON).header(USER_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NDJSON))
+                .andReturn();
+
+        assertThat(result.getResponse().getContentAsString()).isEmpty();
+    }
+
+    @Test
+    void errorBeforeFirstRowIsRenderedAsJson() throws Exception {
+        mvc.perform(get("/bookings").accept(NDJSON).header(USER_HEADER, -1L))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.errorMessage").value("User not found"));
+        mvc.perform(get("/bookings/owner").accept(NDJSON)
+                        .header(USER_HEADER, owner.getId())
+                        .param("state", "UNSUPPORTED_STATUS"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private List<JsonNode> lines(MvcResult result) throws Exception {
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private Long insert(LocalDateTime start) {
+        return new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("booking")
+                .withoutTableColumnMetaDataAccess()
+                .usingColumns("start_time", "end_time", "item_id", "user_id", "status")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(Map.of(
+                        "start_time", Timestamp.valueOf(start),
+                        "end_time", Timestamp.valueOf(start.plusHours(3)),
+                        "item_id", item.getId(),
+                        "user_id", booker.getId(),
+                        "status", Status.WAITING.name()))
+                .longValue();
+    }
+}